@@ -0,0 +1,40 @@
+package com.example.pedidos.Benchmarks;
+
+import com.example.pedidos.PedidosApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Aplicação completa (sem web) no perfil "perf": H2 em memória no modo MySQL com a massa do
+// GeradorMassaPerf. A semente é fixa: a mesma massa em toda execução.
+@State(Scope.Benchmark)
+public class BaseBenchmark {
+
+    // 1000 por padrão; 100000 e 1000000 via -p pedidos=...
+    @Param({"1000"})
+    public int pedidos;
+
+    protected ConfigurableApplicationContext contexto;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(PedidosApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("perf")
+                .run(
+                        "--pedidos.perf.pedidos=" + pedidos,
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.pedidos.Benchmarks;
+
+import com.example.pedidos.DTO.PaginaPedidosDTO;
+import com.example.pedidos.DTO.ResultadoBuscaDTO;
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+import com.example.pedidos.Repositories.PedidoRepository;
+import com.example.pedidos.Services.PedidoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Caminhos quentes do PedidoService medidos sobre a massa do perfil "perf" (BaseBenchmark).
+// Um fork só: cada fork sobe a aplicação e recria a massa inteira.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PedidoServiceBenchmark extends BaseBenchmark {
+
+    private static final LocalDateTime INICIO_BUSCA = LocalDateTime.of(2025, 3, 3, 0, 0);
+    private static final LocalDateTime FIM_BUSCA = LocalDateTime.of(2025, 3, 9, 23, 59);
+
+    private PedidoService pedidoService;
+
+    // Pedido usado na edição: alterna a quantidade do primeiro item para cada chamada gravar algo
+    private Long pedidoEditado;
+    private Cliente clienteEditado;
+    private LocalDateTime entregaEditada;
+    private List<PedidoItem> itensEditados;
+    private int alternancia;
+
+    @Setup(Level.Trial)
+    public void prepararServico() {
+        pedidoService = contexto.getBean(PedidoService.class);
+
+        // Cópia desanexada do primeiro pedido (cliente e itens são LAZY)
+        contexto.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            Pedido existente = contexto.getBean(PedidoRepository.class).findById(1L).orElseThrow();
+            pedidoEditado = existente.getId();
+            clienteEditado = new Cliente(null, existente.getCliente().getNome(),
+                    existente.getCliente().getTelefone(), existente.getCliente().getEndereco(), null);
+            entregaEditada = existente.getDataEntrega();
+            itensEditados = new ArrayList<>();
+            for (PedidoItem item : existente.getItens()) {
+                itensEditados.add(new PedidoItem(item.getProduto(), item.getQuantidade()));
+            }
+        });
+    }
+
+    @Benchmark
+    public List<Pedido> listarPedidos() {
+        return pedidoService.listarPedidos();
+    }
+
+    @Benchmark
+    public PaginaPedidosDTO listarPedidosResumo() {
+        return pedidoService.listarPedidosResumo(null, 50);
+    }
+
+    @Benchmark
+    public ResultadoBuscaDTO buscarPedidosComFiltros() {
+        return pedidoService.buscarPedidosComFiltrosDTO(null, null, "FILE,TEMPERO", 2, INICIO_BUSCA, FIM_BUSCA);
+    }
+
+    @Benchmark
+    public Pedido atualizarPedido() {
+        Pedido edicao = new Pedido();
+        edicao.setCliente(clienteEditado);
+        edicao.setDataEntrega(entregaEditada);
+        List<PedidoItem> itens = new ArrayList<>();
+        for (PedidoItem item : itensEditados) {
+            itens.add(new PedidoItem(item.getProduto(), item.getQuantidade()));
+        }
+        itens.get(0).setQuantidade(itens.get(0).getQuantidade() + (alternancia++ & 1));
+        edicao.setItens(itens);
+        return pedidoService.atualizarPedido(pedidoEditado, edicao);
+    }
+
+    @Benchmark
+    public Pedido preencherItensVazios() {
+        return pedidoService.preencherItensVazios(pedidoEmMemoria());
+    }
+
+    @Benchmark
+    public Pedido calcularTotalPedido() {
+        Pedido pedido = pedidoEmMemoria();
+        pedidoService.calcularTotalPedido(pedido);
+        return pedido;
+    }
+
+    // Pedido novo a cada chamada: preencherItensVazios altera a lista de itens
+    private static Pedido pedidoEmMemoria() {
+        Pedido pedido = new Pedido();
+        List<PedidoItem> itens = new ArrayList<>();
+        itens.add(new PedidoItem(Produto.FILE, 3));
+        itens.add(new PedidoItem(Produto.COMBO, 1));
+        itens.add(new PedidoItem(Produto.TEMPERO, 2));
+        itens.forEach(item -> item.setPedido(pedido));
+        pedido.setItens(itens);
+        return pedido;
+    }
+}
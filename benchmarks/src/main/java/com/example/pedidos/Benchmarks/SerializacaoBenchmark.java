@@ -0,0 +1,139 @@
+package com.example.pedidos.Benchmarks;
+
+import com.example.pedidos.DTO.PedidoRespostaDTO;
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serialização de uma página de pedidos: entidade JPA (como os controllers faziam) contra o
+// PedidoRespostaDTO, com e sem o módulo Blackbird. Só o ObjectMapper, sem subir a aplicação.
+// O tamanho da página em JSON puro e com gzip sai como métrica secundária (Tamanho), no JSON do JMH.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    @Param({"50"})
+    public int tamanhoPagina;
+
+    private ObjectMapper objectMapper;
+    private List<Pedido> pedidos;
+
+    // Medidos uma vez no setup; os benchmarks só copiam para os contadores
+    private int bytesEntidade;
+    private int bytesGzipEntidade;
+    private int bytesDto;
+    private int bytesGzipDto;
+
+    // Tamanho do JSON produzido (bytes por página), reportado junto do tempo de cada benchmark.
+    // O JMH soma contadores EVENTS das iterações de medição e das threads: cada uma reporta a sua
+    // fração, para que o resultado seja o tamanho de uma página com qualquer -i/-t.
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Tamanho {
+        public double bytes;
+        public double bytesGzip;
+        private double fracao;
+
+        @Setup(Level.Iteration)
+        public void preparar(BenchmarkParams benchmark, IterationParams iteracao) {
+            fracao = 1.0 / ((double) iteracao.getCount() * benchmark.getThreads());
+        }
+
+        void registrar(int bytes, int bytesGzip) {
+            this.bytes = bytes * fracao;
+            this.bytesGzip = bytesGzip * fracao;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        // Mesma configuração do ObjectMapper do Spring Boot (datas ISO, JavaTimeModule)
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) builder.modulesToInstall(new BlackbirdModule());
+        objectMapper = builder.build();
+
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        Produto[] produtos = Produto.values();
+        pedidos = new ArrayList<>(tamanhoPagina);
+        for (int i = 1; i <= tamanhoPagina; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setId((long) i);
+            pedido.setCliente(new Cliente((long) i, "Cliente " + i, "1199999" + (1000 + i), "Rua " + i + ", 100", null));
+            pedido.setDataEntrega(LocalDateTime.of(2025, 3, 1, 10, 0).plusHours(i));
+            pedido.setTaxaEntregaCentavos(500);
+            List<PedidoItem> itens = new ArrayList<>();
+            for (int k = 0, n = 1 + aleatorio.nextInt(4); k < n; k++) {
+                PedidoItem item = new PedidoItem(produtos[aleatorio.nextInt(produtos.length)], 1 + aleatorio.nextInt(5));
+                item.setPedido(pedido);
+                itens.add(item);
+            }
+            pedido.setItens(itens);
+            pedido.calcularTotal();
+            pedidos.add(pedido);
+        }
+
+        byte[] entidade = objectMapper.writeValueAsBytes(pedidos);
+        byte[] dto = objectMapper.writeValueAsBytes(pedidos.stream().map(PedidoRespostaDTO::de).toList());
+        bytesEntidade = entidade.length;
+        bytesGzipEntidade = comGzip(entidade);
+        bytesDto = dto.length;
+        bytesGzipDto = comGzip(dto);
+    }
+
+    @Benchmark
+    public byte[] entidade(Tamanho tamanho) throws IOException {
+        tamanho.registrar(bytesEntidade, bytesGzipEntidade);
+        return objectMapper.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public byte[] dto(Tamanho tamanho) throws IOException {
+        tamanho.registrar(bytesDto, bytesGzipDto);
+        List<PedidoRespostaDTO> resposta = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) resposta.add(PedidoRespostaDTO.de(pedido));
+        return objectMapper.writeValueAsBytes(resposta);
+    }
+
+    private static int comGzip(byte[] json) throws IOException {
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+            gzip.write(json);
+        }
+        return comprimido.size();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.pedidos.Benchmarks;
+
+import com.example.pedidos.PedidosApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Threads de plataforma x threads virtuais (spring.threads.virtual.enabled) com a aplicação web
+// completa no perfil "perf" e carga mista por HTTP: 96 clientes lendo pedidos e 32 gravando,
+// contra um pool pequeno de conexões. Throughput dá requisições por segundo; SampleTime dá p99.
+// Cliente e servidor dividem a mesma JVM: vale a comparação entre os modos, não o número absoluto.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadsVirtuaisBenchmark {
+
+    @Param({"false", "true"})
+    public boolean threadsVirtuais;
+
+    @Param({"20000"})
+    public int pedidos;
+
+    @Param({"8"})
+    public int conexoes;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient http;
+    private String base;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(PedidosApplication.class)
+                .profiles("perf")
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                        "--spring.datasource.hikari.maximum-pool-size=" + conexoes,
+                        "--pedidos.perf.pedidos=" + pedidos,
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        http.close();
+        contexto.close();
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(96)
+    public int leitura() throws Exception {
+        long id = 1 + ThreadLocalRandom.current().nextInt(pedidos);
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + "/api/pedidos/" + id)).GET().build();
+        return http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(32)
+    public int escrita() throws Exception {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int cliente = aleatorio.nextInt(pedidos);
+        String corpo = "{\"nome\":\"Cliente " + cliente + "\",\"telefone\":\"11 9" + String.format("%08d", cliente) + "\"," +
+                "\"endereco\":\"Rua " + cliente + "\",\"dataEntrega\":\"2025-06-0" + (1 + aleatorio.nextInt(7)) + "T10:00:00\"," +
+                "\"taxaEntrega\":5,\"itens\":[{\"produto\":\"FILE\",\"quantidade\":" + (1 + aleatorio.nextInt(3)) + "}," +
+                "{\"produto\":\"COMBO\",\"quantidade\":1}]}";
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + "/api/pedidos/mobile"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        return http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.pedidos.Config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Aderência ao primário por cliente (DataSourceRoteado): quem grava recebe o cookie
+// pedidos-primario-ate com o prazo, e as leituras das próximas requisições dele ficam no primário
+// até lá, em qualquer instância. Os outros clientes continuam lendo da réplica.
+@Component
+@ConditionalOnProperty(name = "pedidos.datasource.replica.url")
+public class AderenciaPrimarioFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "pedidos-primario-ate";
+
+    private final long aderenciaMillis;
+
+    public AderenciaPrimarioFilter(@Value("${pedidos.datasource.replica.aderencia:PT2S}") Duration aderencia) {
+        this.aderenciaMillis = aderencia.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        DataSourceRoteado.vincular(new ChamadorHttp(lerCookie(request), response));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DataSourceRoteado.desvincular();
+        }
+    }
+
+    // Prazo vindo do cliente, limitado à aderência configurada a partir de agora
+    private long lerCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) return 0;
+        for (Cookie cookie : request.getCookies()) {
+            if (!COOKIE.equals(cookie.getName())) continue;
+            try {
+                return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis() + aderenciaMillis);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private final class ChamadorHttp implements DataSourceRoteado.Chamador {
+        private final HttpServletResponse response;
+        private long primarioAte;
+
+        ChamadorHttp(long primarioAte, HttpServletResponse response) {
+            this.primarioAte = primarioAte;
+            this.response = response;
+        }
+
+        @Override
+        public long primarioAte() {
+            return primarioAte;
+        }
+
+        @Override
+        public void gravou(long primarioAte) {
+            this.primarioAte = primarioAte;
+            // As escritas terminam antes de o controller escrever o corpo; resposta já enviada fica sem o cookie
+            if (response.isCommitted()) return;
+            Cookie cookie = new Cookie(COOKIE, Long.toString(primarioAte));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (aderenciaMillis + 999) / 1000));
+            response.addCookie(cookie);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.pedidos.Config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+// Cache de 2º nível do Hibernate em memória (Caffeine pelo JCache), para a carga de pedidos por id
+// (edição, buscarDetalhesCompletos), buscarCliente e o cliente de cada pedido não irem ao MySQL.
+// Cada região tem tamanho e expiração próprios (pedidos.cache.<regiao>.tamanho-maximo / .expiracao);
+// acertos e faltas por região saem nas métricas do Hibernate (hibernate_second_level_cache_*).
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    // Regiões usadas nas entidades (@Cache) e na consulta por telefone, com o tamanho e a expiração padrão
+    private static final Map<String, Regiao> REGIOES = new LinkedHashMap<>();
+    static {
+        REGIOES.put("cliente", new Regiao(20_000, Duration.ofMinutes(30)));
+        REGIOES.put("cliente-por-telefone", new Regiao(20_000, Duration.ofMinutes(30)));
+        REGIOES.put("pedido", new Regiao(50_000, Duration.ofMinutes(10)));
+        REGIOES.put("pedido-itens", new Regiao(50_000, Duration.ofMinutes(10)));
+        REGIOES.put("pedido-item", new Regiao(200_000, Duration.ofMinutes(10)));
+        REGIOES.put("default-query-results-region", new Regiao(1_000, Duration.ofMinutes(10)));
+    }
+
+    // Momento da última alteração de cada tabela: sem limite nem expiração, senão consultas em cache
+    // poderiam voltar resultados de antes da alteração
+    private static final String REGIAO_ALTERACOES = "default-update-timestamps-region";
+
+    private record Regiao(long tamanhoMaximo, Duration expiracao) {}
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheSegundoNivel(Environment ambiente) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        REGIOES.forEach((nome, padrao) -> {
+            long tamanhoMaximo = ambiente.getProperty("pedidos.cache." + nome + ".tamanho-maximo", Long.class, padrao.tamanhoMaximo());
+            Duration expiracao = ambiente.getProperty("pedidos.cache." + nome + ".expiracao", Duration.class, padrao.expiracao());
+
+            CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+            configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+            configuracao.setExpireAfterWrite(OptionalLong.of(expiracao.toNanos()));
+            configuracao.setStatisticsEnabled(true);
+            cacheManager.createCache(nome, configuracao);
+        });
+
+        CaffeineConfiguration<Object, Object> alteracoes = new CaffeineConfiguration<>();
+        alteracoes.setStatisticsEnabled(true);
+        cacheManager.createCache(REGIAO_ALTERACOES, alteracoes);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheSegundoNivel) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheSegundoNivel);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.pedidos.Config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Amostragem do log de consultas lentas (hibernate.log_slow_query, logger org.hibernate.SQL_SLOW):
+// no máximo pedidos.sql-lento.maximo-por-janela linhas a cada pedidos.sql-lento.janela. Com o banco
+// sobrecarregado quase toda consulta passa do limite, e o log inteiro não diria mais que as primeiras;
+// as omitidas são contadas e informadas na janela seguinte (o total fica nas métricas do Hibernate).
+@Configuration
+public class ConsultaLentaLogConfig {
+
+    public static final String LOGGER_CONSULTA_LENTA = "org.hibernate.SQL_SLOW";
+
+    private final Amostragem amostragem;
+
+    // maximo-por-janela=0 desliga a amostragem (todas as consultas lentas vão para o log)
+    public ConsultaLentaLogConfig(@Value("${pedidos.sql-lento.maximo-por-janela:20}") int maximoPorJanela,
+                                  @Value("${pedidos.sql-lento.janela:PT1M}") Duration janela) {
+        this.amostragem = maximoPorJanela > 0 ? new Amostragem(maximoPorJanela, janela) : null;
+        if (amostragem != null && LoggerFactory.getILoggerFactory() instanceof LoggerContext contexto) {
+            amostragem.start();
+            contexto.addTurboFilter(amostragem);
+        }
+    }
+
+    @PreDestroy
+    void remover() {
+        if (amostragem != null && LoggerFactory.getILoggerFactory() instanceof LoggerContext contexto) {
+            contexto.getTurboFilterList().remove(amostragem);
+        }
+    }
+
+    static final class Amostragem extends TurboFilter {
+
+        private static final org.slf4j.Logger log = LoggerFactory.getLogger(ConsultaLentaLogConfig.class);
+
+        private final int maximoPorJanela;
+        private final long janelaNanos;
+
+        // Guardados por this
+        private long inicioJanela;
+        private int registradas;
+        private int omitidas;
+
+        Amostragem(int maximoPorJanela, Duration janela) {
+            this.maximoPorJanela = maximoPorJanela;
+            this.janelaNanos = janela.toNanos();
+            this.inicioJanela = System.nanoTime();
+        }
+
+        @Override
+        public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+            // format nulo: só a consulta isInfoEnabled(), que não conta como linha
+            if (format == null || !LOGGER_CONSULTA_LENTA.equals(logger.getName())) return FilterReply.NEUTRAL;
+
+            int omitidasNaJanelaAnterior = 0;
+            synchronized (this) {
+                long agora = System.nanoTime();
+                if (agora - inicioJanela >= janelaNanos) {
+                    omitidasNaJanelaAnterior = omitidas;
+                    inicioJanela = agora;
+                    registradas = 0;
+                    omitidas = 0;
+                }
+                if (registradas >= maximoPorJanela) {
+                    omitidas++;
+                    return FilterReply.DENY;
+                }
+                registradas++;
+            }
+            if (omitidasNaJanelaAnterior > 0)
+                log.warn("{} consultas lentas omitidas do log (limite de {} por janela)",
+                        omitidasNaJanelaAnterior, maximoPorJanela);
+            return FilterReply.NEUTRAL;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.pedidos.Config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// DataSource com no máximo `limite` conexões emprestadas ao mesmo tempo. Com threads virtuais
+// não há teto de threads de requisição: a fila fica no semáforo (threads virtuais estacionam
+// sem custo) em vez de milhares de threads disputando o pool do Hikari.
+// A licença volta no close() da conexão.
+public class DataSourceLimitado extends DelegatingDataSource {
+
+    private final Semaphore licencas;
+    private final long esperaNanos;
+
+    public DataSourceLimitado(DataSource alvo, int limite, Duration espera) {
+        super(alvo);
+        this.licencas = new Semaphore(limite, true);
+        this.esperaNanos = espera.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberandoNoFechamento(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            licencas.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String senha) throws SQLException {
+        adquirir();
+        try {
+            return liberandoNoFechamento(super.getConnection(usuario, senha));
+        } catch (SQLException | RuntimeException e) {
+            licencas.release();
+            throw e;
+        }
+    }
+
+    public int getLicencasDisponiveis() {
+        return licencas.availablePermits();
+    }
+
+    public int getAguardando() {
+        return licencas.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!licencas.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS))
+                throw new SQLTransientConnectionException("Sem conexão disponível após " + Duration.ofNanos(esperaNanos).toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão", e);
+        }
+    }
+
+    private Connection liberandoNoFechamento(Connection conexao) {
+        AtomicBoolean fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("close") && metodo.getParameterCount() == 0) {
+                        try {
+                            conexao.close();
+                        } finally {
+                            if (fechada.compareAndSet(false, true)) licencas.release();
+                        }
+                        return null;
+                    }
+                    if (metodo.getName().equals("unwrap") && args[0] instanceof Class<?> tipo && tipo.isInstance(proxy)) {
+                        return proxy;
+                    }
+                    if (metodo.getName().equals("equals") && metodo.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if (metodo.getName().equals("hashCode") && metodo.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    try {
+                        return metodo.invoke(conexao, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
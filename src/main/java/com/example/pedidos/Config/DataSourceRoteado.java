@@ -0,0 +1,105 @@
+package com.example.pedidos.Config;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+// Transações @Transactional(readOnly = true) leem da réplica; todo o resto (escritas e acesso fora
+// de transação) vai para o primário. Precisa ficar atrás de um LazyConnectionDataSourceProxy: a
+// conexão só pode ser escolhida no primeiro comando, quando a transação já está marcada readOnly.
+//
+// Aderência: depois do commit de uma transação de escrita, as leituras do mesmo chamador (a
+// requisição HTTP, ver AderenciaPrimarioFilter) continuam no primário durante o intervalo
+// configurado, para quem acabou de gravar não ler a réplica ainda atrasada. Os demais chamadores
+// seguem na réplica. Sem chamador vinculado à thread não há aderência.
+//
+// Leitura da réplica não alimenta o cache de 2º nível (CacheMode.GET): o atraso da réplica ficaria
+// em cache até a expiração da região.
+public class DataSourceRoteado extends AbstractRoutingDataSource {
+
+    public enum Destino { PRIMARIO, REPLICA }
+
+    // Quem está usando o banco nesta thread. primarioAte em milissegundos desde a época (vale entre
+    // instâncias); gravou é chamado no commit de cada escrita com o novo prazo.
+    public interface Chamador {
+        long primarioAte();
+
+        void gravou(long primarioAte);
+    }
+
+    private static final ThreadLocal<Chamador> CHAMADOR = new ThreadLocal<>();
+
+    private final long aderenciaMillis;
+
+    public DataSourceRoteado(DataSource primario, DataSource replica, Duration aderencia) {
+        this.aderenciaMillis = aderencia.toMillis();
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public static void vincular(Chamador chamador) {
+        CHAMADOR.set(chamador);
+    }
+
+    public static void desvincular() {
+        CHAMADOR.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return destinoAtual();
+    }
+
+    public Destino destinoAtual() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Chamador chamador = CHAMADOR.get();
+            if (chamador != null && System.currentTimeMillis() < chamador.primarioAte()) return Destino.PRIMARIO;
+            naoGuardarNoCache();
+            return Destino.REPLICA;
+        }
+        registrarEscrita();
+        return Destino.PRIMARIO;
+    }
+
+    // A conexão é escolhida antes de qualquer carga do banco na transação: a sessão JPA vinculada a
+    // ela passa a só consultar o cache de 2º nível, sem gravar nele o que vier da réplica
+    private static void naoGuardarNoCache() {
+        for (Object recurso : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (recurso instanceof EntityManagerHolder holder) {
+                EntityManager entityManager = holder.getEntityManager();
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+
+    // Uma sincronização por transação de escrita: a aderência conta a partir do commit
+    private void registrarEscrita() {
+        Chamador chamador = CHAMADOR.get();
+        if (aderenciaMillis <= 0 || chamador == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) return;
+
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                chamador.gravou(System.currentTimeMillis() + aderenciaMillis);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DataSourceRoteado.this);
+            }
+        });
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.pedidos.Config;
+
+import com.example.pedidos.Models.Produto;
+import com.example.pedidos.Models.Telefones;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Massa sintética do perfil "perf" (H2 em memória): clientes, pedidos, itens e o consolidado de
+// produção, gravados direto por JDBC em INSERTs de várias linhas logo depois de criados os beans:
+// antes de o servidor web aceitar requisições e de os índices em memória serem montados.
+// Determinística: cada bloco de pedidos tem semente própria, então o resultado não depende do
+// número de threads. Distribuição: poucos clientes concentram muitos pedidos, entregas com pico
+// de sexta a domingo e mix de produtos puxado para FILE e COMBO.
+@Component
+@Profile("perf")
+public class GeradorMassaPerf implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorMassaPerf.class);
+
+    private static final int PEDIDOS_POR_BLOCO = 5000;
+    private static final int LINHAS_POR_INSERT = 500;
+    // Folga para o otimizador "pooled" das sequências (allocationSize = 50 nas entidades)
+    private static final int ALOCACAO_SEQUENCIA = 50;
+
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela",
+            "Hugo", "Isabela", "João", "Keila", "Lucas", "Marina", "Nelson", "Olívia", "Paulo", "Renata", "Sérgio"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Pereira", "Costa",
+            "Rodrigues", "Almeida", "Nascimento", "Lima", "Araújo", "Horiye", "Carvalho", "Ribeiro"};
+    private static final String[] RUAS = {"Rua das Flores", "Av. Brasil", "Rua XV de Novembro",
+            "Rua São João", "Av. Paraná", "Rua das Palmeiras", "Rua do Comércio"};
+
+    // Peso relativo de cada dia da semana (segunda a domingo) na data de entrega
+    private static final int[] PESO_DIA = {2, 2, 2, 3, 5, 6, 4};
+    private static final int PESO_DIA_MAXIMO = 6;
+
+    // Mix de produtos (mesma ordem de Produto.values())
+    private static final Map<Produto, Integer> PESO_PRODUTO = Map.of(
+            Produto.FILE, 30, Produto.MEIOFILE, 10, Produto.TIRAS, 9, Produto.COSTELINHA, 7,
+            Produto.ESPALMADA, 6, Produto.EMPANADINHO, 6, Produto.COMBO, 22, Produto.TEMPERO, 10);
+
+    private static final long[] TAXAS = {0, 500, 750, 1000};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int pedidos;
+    private final int pedidosPorCliente;
+    private final long semente;
+    private final int threads;
+    private final LocalDate primeiraEntrega;
+    private final int dias;
+
+    private final Produto[] produtos = Produto.values();
+    private final int[] pesoAcumulado = new int[produtos.length];
+
+    public GeradorMassaPerf(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${pedidos.perf.pedidos:100000}") int pedidos,
+                            @Value("${pedidos.perf.pedidos-por-cliente:4}") int pedidosPorCliente,
+                            @Value("${pedidos.perf.semente:42}") long semente,
+                            @Value("${pedidos.perf.threads:0}") int threads,
+                            @Value("${pedidos.perf.primeira-entrega:2025-01-01}") LocalDate primeiraEntrega,
+                            @Value("${pedidos.perf.dias:365}") int dias) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.pedidos = pedidos;
+        this.pedidosPorCliente = Math.max(1, pedidosPorCliente);
+        this.semente = semente;
+        this.threads = threads > 0 ? threads : Math.min(8, Runtime.getRuntime().availableProcessors());
+        this.primeiraEntrega = primeiraEntrega;
+        this.dias = Math.max(1, dias);
+
+        int acumulado = 0;
+        for (int i = 0; i < produtos.length; i++) {
+            acumulado += PESO_PRODUTO.get(produtos[i]);
+            pesoAcumulado[i] = acumulado;
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long existentes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedido", Long.class);
+        if (existentes != null && existentes > 0) {
+            log.info("Massa de desempenho: banco já tem {} pedidos, nada gerado", existentes);
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        int clientes = Math.max(1, pedidos / pedidosPorCliente);
+        int blocosClientes = (clientes + PEDIDOS_POR_BLOCO - 1) / PEDIDOS_POR_BLOCO;
+        int blocosPedidos = (pedidos + PEDIDOS_POR_BLOCO - 1) / PEDIDOS_POR_BLOCO;
+        Map<Long, long[]> producao = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int b = 0; b < blocosClientes; b++) {
+                int bloco = b;
+                tarefas.add(executor.submit(() -> gerarClientes(bloco, clientes)));
+            }
+            aguardar(tarefas);
+
+            for (int b = 0; b < blocosPedidos; b++) {
+                int bloco = b;
+                tarefas.add(executor.submit(() -> gerarPedidos(bloco, clientes, producao)));
+            }
+            aguardar(tarefas);
+        } finally {
+            executor.shutdown();
+        }
+
+        gravarProducao(producao);
+        ajustarGeradores(clientes);
+
+        log.info("Massa de desempenho: {} clientes e {} pedidos em {} ms ({} threads)",
+                clientes, pedidos, (System.nanoTime() - inicio) / 1_000_000, threads);
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // BLOCOS (cada um numa transação, com gerador aleatório próprio)
+    // ---------------------------------------------------------------------------------------------
+    private void gerarClientes(int bloco, int clientes) {
+        SplittableRandom aleatorio = aleatorio(-1 - bloco);
+        int primeiro = bloco * PEDIDOS_POR_BLOCO;
+        int ultimo = Math.min(clientes, primeiro + PEDIDOS_POR_BLOCO);
+
+        List<Object[]> linhas = new ArrayList<>(ultimo - primeiro);
+        for (int i = primeiro; i < ultimo; i++) {
+            long id = i + 1L;
+            String telefone = String.format("(%02d) 9%04d-%04d", 11 + i % 89, (i / 10000) % 10000, i % 10000);
+            String nome = NOMES[aleatorio.nextInt(NOMES.length)] + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+            String endereco = RUAS[aleatorio.nextInt(RUAS.length)] + ", " + (1 + aleatorio.nextInt(2000));
+            LocalDateTime cadastro = primeiraEntrega.atStartOfDay().minusDays(aleatorio.nextInt(720));
+            linhas.add(new Object[]{id, nome, telefone, Telefones.normalizar(telefone), endereco, cadastro});
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                inserir("cliente", "id, nome, telefone, telefone_normalizado, endereco, data", linhas));
+    }
+
+    private void gerarPedidos(int bloco, int clientes, Map<Long, long[]> producao) {
+        SplittableRandom aleatorio = aleatorio(bloco);
+        int primeiro = bloco * PEDIDOS_POR_BLOCO;
+        int ultimo = Math.min(pedidos, primeiro + PEDIDOS_POR_BLOCO);
+
+        List<Object[]> linhasPedido = new ArrayList<>(ultimo - primeiro);
+        List<Object[]> linhasItem = new ArrayList<>((ultimo - primeiro) * 3);
+        Map<Long, long[]> producaoBloco = new HashMap<>();
+
+        for (int i = primeiro; i < ultimo; i++) {
+            long pedidoId = i + 1L;
+            // u² concentra os pedidos nos primeiros clientes (clientes fiéis repetem bastante)
+            double u = aleatorio.nextDouble();
+            long clienteId = 1 + (long) (clientes * u * u);
+            LocalDate dia = sortearDia(aleatorio);
+            LocalDateTime entrega = dia.atTime(8 + aleatorio.nextInt(11), aleatorio.nextInt(4) * 15);
+            long taxa = TAXAS[aleatorio.nextInt(TAXAS.length)];
+
+            // De 1 a 4 produtos distintos, quantidade puxada para 1
+            long total = taxa;
+            long usados = 0;
+            int quantidadeItens = 1 + Math.min(aleatorio.nextInt(4), aleatorio.nextInt(4));
+            for (int k = 0; k < quantidadeItens; k++) {
+                Produto produto = sortearProduto(aleatorio);
+                if ((usados & (1L << produto.ordinal())) != 0) continue;
+                usados |= 1L << produto.ordinal();
+
+                int quantidade = 1 + Math.min(aleatorio.nextInt(3), aleatorio.nextInt(4));
+                long preco = produto.getPrecoCentavos();
+                long subtotal = preco * quantidade;
+                total += subtotal;
+                // Id do item derivado do pedido: único sem coordenação entre threads
+                long itemId = pedidoId * produtos.length + produto.ordinal();
+                linhasItem.add(new Object[]{itemId, pedidoId, produto.name(), quantidade, preco, subtotal});
+
+                long[] acumulado = producaoBloco.computeIfAbsent(
+                        dia.toEpochDay() * produtos.length + produto.ordinal(), chave -> new long[2]);
+                acumulado[0] += quantidade;
+                acumulado[1] += subtotal;
+            }
+
+            linhasPedido.add(new Object[]{pedidoId, clienteId, entrega, taxa, total, 0L});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            inserir("pedido", "id, cliente_id, data_entrega, taxa_entrega_centavos, valor_total_centavos, versao", linhasPedido);
+            inserir("pedido_item", "id, pedido_id, produto, quantidade, preco_unitario_centavos, subtotal_centavos", linhasItem);
+        });
+
+        producaoBloco.forEach((chave, valores) -> producao.merge(chave, valores, (a, b) -> {
+            a[0] += b[0];
+            a[1] += b[1];
+            return a;
+        }));
+    }
+
+    private void gravarProducao(Map<Long, long[]> producao) {
+        List<Object[]> linhas = new ArrayList<>(producao.size());
+        producao.forEach((chave, valores) -> linhas.add(new Object[]{
+                LocalDate.ofEpochDay(chave / produtos.length), produtos[(int) (chave % produtos.length)].name(),
+                valores[0], valores[1]}));
+        transactionTemplate.executeWithoutResult(status ->
+                inserir("producao_diaria", "data, produto, quantidade, receita_centavos", linhas));
+    }
+
+    // Ids gravados à mão: sequências e identidade seguem depois do maior id usado
+    private void ajustarGeradores(int clientes) {
+        jdbcTemplate.execute("ALTER TABLE cliente ALTER COLUMN id RESTART WITH " + (clientes + 1L));
+        jdbcTemplate.execute("ALTER SEQUENCE pedido_seq RESTART WITH " + (pedidos + 1L + ALOCACAO_SEQUENCIA));
+        long maiorItem = (pedidos + 1L) * produtos.length;
+        jdbcTemplate.execute("ALTER SEQUENCE pedido_item_seq RESTART WITH " + (maiorItem + 1 + ALOCACAO_SEQUENCIA));
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // AUXILIARES
+    // ---------------------------------------------------------------------------------------------
+
+    // INSERT INTO t (a, b) VALUES (?, ?), (?, ?), ... com até LINHAS_POR_INSERT linhas por comando
+    private void inserir(String tabela, String colunas, List<Object[]> linhas) {
+        if (linhas.isEmpty()) return;
+        int porLinha = linhas.get(0).length;
+        String tupla = "(" + "?, ".repeat(porLinha - 1) + "?)";
+
+        for (int inicio = 0; inicio < linhas.size(); inicio += LINHAS_POR_INSERT) {
+            int fim = Math.min(linhas.size(), inicio + LINHAS_POR_INSERT);
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(tabela)
+                    .append(" (").append(colunas).append(") VALUES ");
+            Object[] parametros = new Object[(fim - inicio) * porLinha];
+            for (int i = inicio; i < fim; i++) {
+                if (i > inicio) sql.append(", ");
+                sql.append(tupla);
+                System.arraycopy(linhas.get(i), 0, parametros, (i - inicio) * porLinha, porLinha);
+            }
+            jdbcTemplate.update(sql.toString(), parametros);
+        }
+    }
+
+    // Dia uniforme no período, aceito conforme o peso do dia da semana
+    private LocalDate sortearDia(SplittableRandom aleatorio) {
+        while (true) {
+            LocalDate dia = primeiraEntrega.plusDays(aleatorio.nextInt(dias));
+            DayOfWeek diaSemana = dia.getDayOfWeek();
+            if (aleatorio.nextInt(PESO_DIA_MAXIMO) < PESO_DIA[diaSemana.ordinal()]) return dia;
+        }
+    }
+
+    private Produto sortearProduto(SplittableRandom aleatorio) {
+        int sorteio = aleatorio.nextInt(pesoAcumulado[pesoAcumulado.length - 1]);
+        for (int i = 0; i < pesoAcumulado.length; i++) {
+            if (sorteio < pesoAcumulado[i]) return produtos[i];
+        }
+        return produtos[produtos.length - 1];
+    }
+
+    private SplittableRandom aleatorio(long bloco) {
+        return new SplittableRandom(semente * 0x9E3779B97F4A7C15L + bloco);
+    }
+
+    private static void aguardar(List<Future<?>> tarefas) {
+        try {
+            for (Future<?> tarefa : tarefas) tarefa.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração da massa interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na geração da massa: " + e.getCause().getMessage(), e.getCause());
+        }
+        tarefas.clear();
+    }
+}
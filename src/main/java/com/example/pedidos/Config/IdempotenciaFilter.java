@@ -0,0 +1,144 @@
+package com.example.pedidos.Config;
+
+import com.example.pedidos.Services.IdempotenciaService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+// Idempotency-Key nos POSTs de cadastro de pedido (/api/pedidos e /api/pedidos/mobile).
+// O aplicativo repete a requisição com a mesma chave quando a rede cai; a repetição recebe a
+// resposta original (cabeçalho Idempotent-Replayed) sem passar pelo PedidoService.
+// Mesma chave com outro corpo: 422. Mesma chave ainda em processamento: 409.
+@Component
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    private static final int TAMANHO_MAXIMO_CHAVE = 100;
+    private static final Set<String> ROTAS = Set.of("/api/pedidos", "/api/pedidos/mobile");
+
+    private final IdempotenciaService idempotenciaService;
+
+    public IdempotenciaFilter(IdempotenciaService idempotenciaService) {
+        this.idempotenciaService = idempotenciaService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(CABECALHO) == null
+                || !ROTAS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String chave = request.getHeader(CABECALHO).trim();
+        if (chave.isEmpty() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), CABECALHO + " deve ter de 1 a " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+            return;
+        }
+
+        byte[] corpo = request.getInputStream().readAllBytes();
+        byte[] hashRequisicao = hash(request, corpo);
+        IdempotenciaService.Reserva reserva = idempotenciaService.reservar(chave, hashRequisicao);
+
+        switch (reserva.situacao()) {
+            case CONCLUIDA -> repetir(reserva.resposta(), response);
+            case EM_ANDAMENTO -> response.sendError(HttpStatus.CONFLICT.value(), "Requisição com esta " + CABECALHO + " ainda em processamento.");
+            case CONFLITO -> response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), CABECALHO + " já usada com outra requisição.");
+            case NOVA -> executar(chave, hashRequisicao, new CorpoLido(request, corpo), response, chain);
+        }
+    }
+
+    private void executar(String chave, byte[] hashRequisicao, HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper resposta = new ContentCachingResponseWrapper(response);
+        boolean concluida = false;
+        try {
+            chain.doFilter(request, resposta);
+            // Erros do servidor não ficam gravados: a próxima tentativa executa de novo
+            if (resposta.getStatus() < 500) {
+                idempotenciaService.concluir(chave, new IdempotenciaService.Resposta(
+                        hashRequisicao, resposta.getStatus(), resposta.getContentType(),
+                        resposta.getHeader(HttpHeaders.LOCATION), resposta.getContentAsByteArray()));
+                concluida = true;
+            }
+        } finally {
+            if (!concluida) idempotenciaService.liberar(chave);
+            resposta.copyBodyToResponse();
+        }
+    }
+
+    private static void repetir(IdempotenciaService.Resposta gravada, HttpServletResponse response) throws IOException {
+        response.setStatus(gravada.status());
+        response.setHeader("Idempotent-Replayed", "true");
+        if (gravada.tipoConteudo() != null) response.setContentType(gravada.tipoConteudo());
+        if (gravada.localizacao() != null) response.setHeader(HttpHeaders.LOCATION, gravada.localizacao());
+        if (gravada.corpo() != null) {
+            response.setContentLength(gravada.corpo().length);
+            response.getOutputStream().write(gravada.corpo());
+        }
+    }
+
+    private static byte[] hash(HttpServletRequest request, byte[] corpo) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            return sha.digest(corpo);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Requisição com o corpo já lido (para o hash), servido de novo ao controller
+    private static final class CorpoLido extends HttpServletRequestWrapper {
+        private final byte[] corpo;
+
+        CorpoLido(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override public boolean isFinished() { return entrada.available() == 0; }
+                @Override public boolean isReady() { return true; }
+                // Corpo todo em memória: não há o que esperar, a leitura já pode terminar
+                @Override public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+                @Override public int read() { return entrada.read(); }
+                @Override public int read(byte[] b, int off, int len) { return entrada.read(b, off, len); }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.pedidos.Config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Blackbird: o Jackson acessa getters, campos e construtores por LambdaMetafactory em vez de
+// reflexão, o que reduz a CPU por resposta. pedidos.json.blackbird=false volta ao acesso padrão
+// (o SerializacaoBenchmark compara os dois).
+@Configuration
+@ConditionalOnProperty(name = "pedidos.json.blackbird", havingValue = "true", matchIfMissing = true)
+public class JacksonConfig {
+
+    // Todo Module declarado como bean entra no ObjectMapper do Spring Boot
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
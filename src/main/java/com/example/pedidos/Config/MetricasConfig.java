@@ -0,0 +1,20 @@
+package com.example.pedidos.Config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Habilita o @Timed nos serviços (PedidoService, ClienteService): um timer por método público,
+// com as tags class e method, publicado junto das métricas HTTP, do Hibernate e do Hikari
+@Configuration
+public class MetricasConfig {
+
+    // Nome do timer dos métodos de serviço (pedidos_servico_seconds no Prometheus)
+    public static final String TIMER_SERVICO = "pedidos.servico";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.pedidos.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Réplica de leitura opcional (pedidos.datasource.replica.url): dois pools Hikari, o primário com
+// spring.datasource.* e a réplica com pedidos.datasource.replica.*, e um DataSource principal que
+// escolhe entre eles por transação (DataSourceRoteado). Sem a URL da réplica nada disso é criado.
+@Configuration
+@ConditionalOnProperty(name = "pedidos.datasource.replica.url")
+public class RoteamentoDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("pedidos.datasource.replica.hikari")
+    public HikariDataSource dataSourceReplica(Environment ambiente) throws Exception {
+        DataSourceProperties propriedades = Binder.get(ambiente)
+                .bind("pedidos.datasource.replica", DataSourceProperties.class)
+                .get();
+        propriedades.afterPropertiesSet();
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 @Value("${pedidos.datasource.replica.aderencia:PT2S}") Duration aderencia) {
+        return new LazyConnectionDataSourceProxy(new DataSourceRoteado(primario, replica, aderencia));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.pedidos.Config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Modo opcional com threads virtuais (spring.threads.virtual.enabled=true): o Tomcat atende cada
+// requisição numa thread virtual e o DataSource passa a limitar as conexões emprestadas
+// (DataSourceLimitado), com o mesmo teto e a mesma espera do pool do Hikari por padrão.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public static BeanPostProcessor limiteConexoes(Environment ambiente) {
+        int limite = ambiente.getProperty("pedidos.datasource.limite-conexoes", Integer.class,
+                ambiente.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration espera = ambiente.getProperty("pedidos.datasource.espera-conexao", Duration.class,
+                Duration.ofMillis(ambiente.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L)));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nome) {
+                // Só os pools: proxies e o roteamento para a réplica (RoteamentoDataSourceConfig) repassam a eles
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+                    return new DataSourceLimitado(dataSource, limite, espera);
+                }
+                return bean;
+            }
+        };
+    }
+}
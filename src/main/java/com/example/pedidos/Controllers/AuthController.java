@@ -1,5 +1,6 @@
 package com.example.pedidos.Controllers;
 
+import com.example.pedidos.DTO.UsuarioDTO;
 import com.example.pedidos.Models.User;
 import com.example.pedidos.Services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,8 +51,8 @@ public class AuthController {
         User user = userService.autenticar(request.getEmail(), request.getSenha());
 
         if (user != null) {
-            // Sucesso: Retorna o objeto User (código 200 OK)
-            return ResponseEntity.ok(user);
+            // Sucesso: Retorna id, nome e e-mail do usuário (código 200 OK)
+            return ResponseEntity.ok(UsuarioDTO.de(user));
         } else {
             // 💡 MUDANÇA: Retorna um objeto ErrorResponse, garantindo JSON válido (código 401)
             ErrorResponse error = new ErrorResponse("E-mail ou senha inválidos!");
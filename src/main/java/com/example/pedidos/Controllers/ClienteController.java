@@ -1,6 +1,9 @@
 package com.example.pedidos.Controllers;
 
+import com.example.pedidos.DTO.ClienteRespostaDTO;
+import com.example.pedidos.DTO.EstatisticasCacheDTO;
 import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Services.ClienteCache;
 import com.example.pedidos.Services.ClienteService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -15,22 +18,30 @@ import org.springframework.dao.DataIntegrityViolationException;
 @RequestMapping("/api/clientes")
 public class ClienteController {
     private final ClienteService clienteService;
+    private final ClienteCache clienteCache;
 
     @Autowired
-    public ClienteController(ClienteService clienteService) {
+    public ClienteController(ClienteService clienteService, ClienteCache clienteCache) {
         this.clienteService = clienteService;
+        this.clienteCache = clienteCache;
     }
 
     @GetMapping
-    public ResponseEntity<List<Cliente>>listar() {
-        return ResponseEntity.ok(clienteService.listarClientes());
+    public ResponseEntity<List<ClienteRespostaDTO>> listar() {
+        return ResponseEntity.ok(clienteService.listarClientes().stream().map(ClienteRespostaDTO::de).toList());
+    }
+
+    // Acertos/faltas do cache de clientes por telefone, para dimensionar tamanho e expiração
+    @GetMapping("/cache")
+    public ResponseEntity<EstatisticasCacheDTO> estatisticasCache() {
+        return ResponseEntity.ok(clienteCache.estatisticas());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Cliente> buscar(@PathVariable Long id) {
+    public ResponseEntity<ClienteRespostaDTO> buscar(@PathVariable Long id) {
         Cliente cliente = clienteService.buscarCliente(id);
         if (cliente != null) {
-            return ResponseEntity.ok(cliente);
+            return ResponseEntity.ok(ClienteRespostaDTO.de(cliente));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -40,7 +51,7 @@ public class ClienteController {
     public ResponseEntity<?> cadastrar(@Valid @RequestBody Cliente c) {
         try {
             Cliente salvo = clienteService.cadastrarCliente(c);
-            return ResponseEntity.status(HttpStatus.CREATED).body(salvo);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ClienteRespostaDTO.de(salvo));
         } catch (DataIntegrityViolationException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
@@ -50,7 +61,7 @@ public class ClienteController {
     public ResponseEntity<?> atualizar(@PathVariable Long id, @Valid @RequestBody Cliente clienteAtualizado) {
         try {
             Cliente atualizado = clienteService.atualizarCliente(id, clienteAtualizado);
-            return ResponseEntity.ok(atualizado);
+            return ResponseEntity.ok(ClienteRespostaDTO.de(atualizado));
         } catch (DataIntegrityViolationException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (RuntimeException e) {
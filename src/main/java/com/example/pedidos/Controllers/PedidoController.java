@@ -1,21 +1,32 @@
 package com.example.pedidos.Controllers;
 
 import com.example.pedidos.DTO.PedidoDTO;
-import com.example.pedidos.DTO.PedidoResumoDTO;
-import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.DTO.PedidoItemRespostaDTO;
+import com.example.pedidos.DTO.PedidoRespostaDTO;
+import com.example.pedidos.DTO.ResultadoBuscaDTO;
+import com.example.pedidos.DTO.ResultadoImportacaoDTO;
+import com.example.pedidos.DTO.SituacaoPedidoMobileDTO;
 import com.example.pedidos.Models.Pedido;
-import com.example.pedidos.Models.PedidoItem;
-import com.example.pedidos.Models.Produto;
-import com.example.pedidos.Repositories.ClienteRepository;
+import com.example.pedidos.Services.FilaPedidosMobile;
+import com.example.pedidos.Services.FormatoArquivo;
+import com.example.pedidos.Services.PedidoExportacaoService;
+import com.example.pedidos.Services.PedidoImportacaoService;
+import com.example.pedidos.Services.PedidoLoteService;
 import com.example.pedidos.Services.PedidoService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,66 +35,114 @@ import org.springframework.beans.factory.annotation.Autowired;
 @RequestMapping("/api/pedidos")
 public class PedidoController {
 
-    @Autowired
-    private ClienteRepository clienteRepository;
+    public static final String RESULTADO_TRUNCADO = "Resultado-Truncado";
 
     private final PedidoService pedidoService;
+    private final PedidoLoteService pedidoLoteService;
+    private final PedidoImportacaoService pedidoImportacaoService;
+    private final PedidoExportacaoService pedidoExportacaoService;
+    private final FilaPedidosMobile filaPedidosMobile;
 
     @Autowired
-    public PedidoController(PedidoService pedidoService) {
+    public PedidoController(PedidoService pedidoService,
+                            PedidoLoteService pedidoLoteService,
+                            PedidoImportacaoService pedidoImportacaoService,
+                            PedidoExportacaoService pedidoExportacaoService,
+                            FilaPedidosMobile filaPedidosMobile) {
         this.pedidoService = pedidoService;
+        this.pedidoLoteService = pedidoLoteService;
+        this.pedidoImportacaoService = pedidoImportacaoService;
+        this.pedidoExportacaoService = pedidoExportacaoService;
+        this.filaPedidosMobile = filaPedidosMobile;
     }
 
     @GetMapping
-    public ResponseEntity<List<PedidoResumoDTO>> listar() {
-        return ResponseEntity.ok(pedidoService.listarPedidosResumo());
+    public ResponseEntity<?> listar(@RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "50") int tamanho) {
+        try {
+            return ResponseEntity.ok(pedidoService.listarPedidosResumo(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Sincronização incremental do app: envia o token da resposta anterior em ?since=
+    @GetMapping("/changes")
+    public ResponseEntity<?> listarAlteracoes(@RequestParam(required = false) String since) {
+        try {
+            return ResponseEntity.ok(pedidoService.listarAlteracoes(since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 
+    // O ETag (versão do pedido + alteração do cliente) vem da memória ou de uma consulta por PK; com
+    // If-None-Match igual responde 304 sem montar o detalhe. Lido antes do corpo: se o pedido mudar
+    // no meio, o cliente guarda um corpo mais novo com ETag antigo e só refaz a busca na próxima vez.
     @GetMapping("/{id}")
-    public ResponseEntity<Pedido> buscar(@PathVariable Long id) {
-        Pedido pedido = pedidoService.buscarPedido(id);
+    public ResponseEntity<PedidoRespostaDTO> buscar(@PathVariable Long id, WebRequest request) {
+        String etag = pedidoService.etagPedido(id);
+        if (etag == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        PedidoRespostaDTO pedido = pedidoService.buscarPedido(id);
         if (pedido != null) {
-            return ResponseEntity.ok(pedido);
+            return ResponseEntity.ok().eTag(etag).body(pedido);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/{id}/itens")
-    public ResponseEntity<List<PedidoItem>> listarItensDoPedido(@PathVariable Long id) {
-        Pedido pedido = pedidoService.buscarPedido(id);
+    public ResponseEntity<List<PedidoItemRespostaDTO>> listarItensDoPedido(@PathVariable Long id, WebRequest request) {
+        String etag = pedidoService.etagPedido(id);
+        if (etag == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        PedidoRespostaDTO pedido = pedidoService.buscarPedido(id);
 
         if (pedido == null) {
             return ResponseEntity.notFound().build();
         }
 
-        return ResponseEntity.ok(pedido.getItens());
+        return ResponseEntity.ok().eTag(etag).body(pedido.itens());
     }
 
+    // Corpo continua sendo a lista; passando de PedidoService.LIMITE_BUSCA pedidos ela vem cortada e
+    // com o cabeçalho Resultado-Truncado (o app avisa para refinar os filtros)
     @GetMapping("/buscar")
     public ResponseEntity<?> buscarPedidosMobile(
             @RequestParam(required = false) String cliente,
             @RequestParam(required = false) String telefone,
             @RequestParam(required = false) String produto,
+            @RequestParam(required = false) Integer quantidadeMinima,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim
     ) {
-        return ResponseEntity.ok(
-                pedidoService.buscarPedidosComFiltrosDTO(cliente, telefone, produto, inicio, fim)
-        );
+        ResultadoBuscaDTO resultado =
+                pedidoService.buscarPedidosComFiltrosDTO(cliente, telefone, produto, quantidadeMinima, inicio, fim);
+        return ResponseEntity.ok()
+                .header(RESULTADO_TRUNCADO, String.valueOf(resultado.truncado()))
+                .body(resultado.pedidos());
     }
 
     @PostMapping
-    public ResponseEntity<Pedido> cadastrar(@Valid @RequestBody Pedido c) {
-        Pedido salvo = pedidoService.cadastrarPedido(c);
-        return ResponseEntity.status(HttpStatus.CREATED).body(salvo);
+    public ResponseEntity<PedidoRespostaDTO> cadastrar(@Valid @RequestBody Pedido c) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(pedidoService.cadastrarPedidoDTO(c));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> atualizar(@PathVariable Long id, @Valid @RequestBody Pedido pedidoAtualizado) {
         try {
-            Pedido atualizado = pedidoService.atualizarPedido(id, pedidoAtualizado);
-            return ResponseEntity.ok(atualizado);
+            return ResponseEntity.ok(pedidoService.atualizarPedidoDTO(id, pedidoAtualizado));
         } catch (Exception e) {
             e.printStackTrace(); // <-- MOSTRA O ERRO NO LOG
             return ResponseEntity.status(500).body("Erro: " + e.getMessage());
@@ -103,37 +162,67 @@ public class PedidoController {
     // ---------------- NOVO ENDPOINT PARA O MOBILE --------------------
 
     @PostMapping("/mobile")
-    public ResponseEntity<Pedido> cadastrarMobile(@RequestBody PedidoDTO dto) {
-
-        // 1. Buscar cliente pelo telefone
-        Cliente cliente = clienteRepository.findByTelefone(dto.telefone);
-
-        // 2. Criar novo cliente se não existir
-        if (cliente == null) {
-            cliente = new Cliente();
-            cliente.setNome(dto.nome);
-            cliente.setTelefone(dto.telefone);
-            cliente.setEndereco(dto.endereco);
-            clienteRepository.save(cliente);
+    public ResponseEntity<?> cadastrarMobile(@RequestBody PedidoDTO dto) {
+
+        // Modo assíncrono: valida, registra no diário e responde 202 com o id de acompanhamento
+        if (filaPedidosMobile.isAtiva()) {
+            try {
+                SituacaoPedidoMobileDTO situacao = filaPedidosMobile.receber(dto);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/pedidos/mobile/" + situacao.id()))
+                        .body(situacao);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            }
         }
 
-        // 3. Criar o Pedido
-        Pedido pedido = new Pedido();
-        pedido.setCliente(cliente);
-        pedido.setDataEntrega(dto.dataEntrega);
-        pedido.setTaxaEntrega(dto.taxaEntrega);
-
-        // 4. Criar Itens
-        for (PedidoDTO.ItemDTO item : dto.itens) {
-            PedidoItem pi = new PedidoItem();
-            pi.setProduto(Produto.valueOf(item.produto));
-            pi.setQuantidade(item.quantidade);
-            pi.setPedido(pedido);
-            pedido.getItens().add(pi);
+        // 1. Criar o Pedido com os itens (o cliente é resolvido pelo telefone no cadastro)
+        Pedido pedido = pedidoService.montarPedido(dto);
+
+        // 2. Salvar
+        return ResponseEntity.status(HttpStatus.CREATED).body(pedidoService.cadastrarPedidoDTO(pedido));
+    }
+
+    @GetMapping("/mobile/{id}")
+    public ResponseEntity<SituacaoPedidoMobileDTO> situacaoMobile(@PathVariable String id) {
+        SituacaoPedidoMobileDTO situacao = filaPedidosMobile.situacao(id);
+        if (situacao == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(situacao);
+    }
+
+    // ---------------- LOTE (várias centenas de pedidos por requisição) --------------------
+
+    @PostMapping("/lote")
+    public ResponseEntity<?> cadastrarLote(@RequestBody List<PedidoDTO> dtos) {
+        try {
+            return ResponseEntity.ok(pedidoLoteService.cadastrarLote(dtos));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
+    }
+
+    // ---------------- IMPORTAÇÃO DE HISTÓRICO (CSV / NDJSON em streaming) --------------------
+
+    @PostMapping(value = "/importar", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ResultadoImportacaoDTO> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream corpo
+    ) throws IOException {
+        FormatoArquivo formato = contentType.startsWith("text/csv") ? FormatoArquivo.CSV : FormatoArquivo.NDJSON;
+        return ResponseEntity.ok(pedidoImportacaoService.importar(corpo, formato));
+    }
+
+    // ---------------- EXPORTAÇÃO COMPLETA (CSV / NDJSON em streaming) --------------------
 
-        // 5. Salvar
-        Pedido salvo = pedidoService.cadastrarPedido(pedido);
-        return ResponseEntity.status(HttpStatus.CREATED).body(salvo);
+    @GetMapping("/export")
+    public void exportar(@RequestParam(defaultValue = "csv") String formato,
+                         HttpServletResponse response) throws IOException {
+        boolean csv = !"ndjson".equalsIgnoreCase(formato);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"pedidos." + (csv ? "csv" : "ndjson") + "\"");
+        pedidoExportacaoService.exportar(csv ? FormatoArquivo.CSV : FormatoArquivo.NDJSON, response.getOutputStream());
     }
 }
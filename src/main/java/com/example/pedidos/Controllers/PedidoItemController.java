@@ -1,5 +1,6 @@
 package com.example.pedidos.Controllers;
 
+import com.example.pedidos.DTO.PedidoItemRespostaDTO;
 import com.example.pedidos.Models.PedidoItem;
 import com.example.pedidos.Services.PedidoItemService;
 import jakarta.validation.Valid;
@@ -22,31 +23,31 @@ public class PedidoItemController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PedidoItem>>listar() {
-        return ResponseEntity.ok(pedidoItemService.listarPedidoItens());
+    public ResponseEntity<List<PedidoItemRespostaDTO>> listar() {
+        return ResponseEntity.ok(pedidoItemService.listarPedidoItens().stream().map(PedidoItemRespostaDTO::de).toList());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PedidoItem> buscar(@PathVariable Long id) {
+    public ResponseEntity<PedidoItemRespostaDTO> buscar(@PathVariable Long id) {
         PedidoItem pedidoItem = pedidoItemService.buscarPedidoItem(id);
         if (pedidoItem != null) {
-            return ResponseEntity.ok(pedidoItem);
+            return ResponseEntity.ok(PedidoItemRespostaDTO.de(pedidoItem));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PostMapping
-    public ResponseEntity<PedidoItem> cadastrar(@Valid @RequestBody PedidoItem c) {
+    public ResponseEntity<PedidoItemRespostaDTO> cadastrar(@Valid @RequestBody PedidoItem c) {
         PedidoItem salvo = pedidoItemService.cadastrarPedidoItem(c);
-        return ResponseEntity.status(HttpStatus.CREATED).body(salvo);
+        return ResponseEntity.status(HttpStatus.CREATED).body(PedidoItemRespostaDTO.de(salvo));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<PedidoItem> atualizar(@PathVariable Long id, @Valid @RequestBody PedidoItem pedidoItemAtualizado) {
+    public ResponseEntity<PedidoItemRespostaDTO> atualizar(@PathVariable Long id, @Valid @RequestBody PedidoItem pedidoItemAtualizado) {
         try {
             PedidoItem atualizado = pedidoItemService.atualizarpedidoItem(id, pedidoItemAtualizado);
-            return ResponseEntity.ok(atualizado);
+            return ResponseEntity.ok(PedidoItemRespostaDTO.de(atualizado));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -2,8 +2,16 @@ package com.example.pedidos.Controllers;
 
 import com.example.pedidos.DTO.ProdutoDTO;
 import com.example.pedidos.Models.Produto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -11,14 +19,31 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/produtos")
 public class ProdutoController {
 
-    @GetMapping
-    public List<ProdutoDTO> listarProdutos() {
-        return List.of(Produto.values()).stream()
+    // O catálogo vem do enum e só muda com um novo deploy: serializa uma vez na subida
+    private final byte[] catalogo;
+    private final String etag;
+    private final Instant atualizadoEm = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public ProdutoController(ObjectMapper objectMapper) throws JsonProcessingException {
+        List<ProdutoDTO> produtos = List.of(Produto.values()).stream()
                 .map(p -> new ProdutoDTO(
                         p.name(),
                         p.getDescricao(),
-                        p.getPreco()
+                        p.getPrecoCentavos()
                 ))
                 .collect(Collectors.toList());
+        this.catalogo = objectMapper.writeValueAsBytes(produtos);
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(catalogo) + "\"";
+    }
+
+    // If-None-Match / If-Modified-Since são tratados pelo Spring a partir do ETag e Last-Modified
+    @GetMapping
+    public ResponseEntity<byte[]> listarProdutos() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .lastModified(atualizadoEm)
+                .body(catalogo);
     }
 }
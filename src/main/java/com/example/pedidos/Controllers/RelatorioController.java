@@ -0,0 +1,34 @@
+package com.example.pedidos.Controllers;
+
+import com.example.pedidos.Services.ProducaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/relatorios")
+public class RelatorioController {
+
+    private final ProducaoService producaoService;
+
+    @Autowired
+    public RelatorioController(ProducaoService producaoService) {
+        this.producaoService = producaoService;
+    }
+
+    // Quantidade e receita por dia de entrega e produto (lido do consolidado, sem varrer pedidos)
+    @GetMapping("/producao")
+    public ResponseEntity<?> producao(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim
+    ) {
+        if (fim.isBefore(inicio)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("A data final deve ser posterior à inicial.");
+        }
+        return ResponseEntity.ok(producaoService.listar(inicio, fim));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.pedidos.DTO;
+
+import java.util.List;
+
+// Resposta do feed de alterações: pedidos criados ou alterados (inclusive pelo cadastro do cliente)
+// e ids excluídos desde o token recebido. Com recarregar == true o app baixa a lista inteira
+// (GET /api/pedidos) e segue com o token devolvido aqui.
+public record AlteracoesPedidosDTO(List<PedidoResumoDTO> pedidos, List<Long> excluidos, String token, boolean recarregar) {
+
+    public static AlteracoesPedidosDTO recarregar(String token) {
+        return new AlteracoesPedidosDTO(List.of(), List.of(), token, true);
+    }
+}
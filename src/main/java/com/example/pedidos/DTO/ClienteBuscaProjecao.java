@@ -0,0 +1,5 @@
+package com.example.pedidos.DTO;
+
+// Dados do cliente usados pelo índice de busca por nome/telefone
+public record ClienteBuscaProjecao(Long id, String nome, String telefoneNormalizado) {
+}
@@ -0,0 +1,15 @@
+package com.example.pedidos.DTO;
+
+import com.example.pedidos.Models.Cliente;
+
+import java.time.LocalDateTime;
+
+// Cliente como sai da API (mesmo JSON de antes), sem serializar a entidade
+public record ClienteRespostaDTO(Long id, String nome, String telefone, String endereco, LocalDateTime data) {
+
+    public static ClienteRespostaDTO de(Cliente cliente) {
+        if (cliente == null) return null;
+        return new ClienteRespostaDTO(cliente.getId(), cliente.getNome(), cliente.getTelefone(),
+                cliente.getEndereco(), cliente.getData());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.pedidos.DTO;
+
+public class EstatisticasCacheDTO {
+    public long tamanho;
+    public long tamanhoMaximo;
+    public long acertos;
+    public long faltas;
+    public double taxaAcerto;
+    public long remocoes;
+
+    public EstatisticasCacheDTO(long tamanho, long tamanhoMaximo, long acertos, long faltas,
+                                double taxaAcerto, long remocoes) {
+        this.tamanho = tamanho;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.acertos = acertos;
+        this.faltas = faltas;
+        this.taxaAcerto = taxaAcerto;
+        this.remocoes = remocoes;
+    }
+}
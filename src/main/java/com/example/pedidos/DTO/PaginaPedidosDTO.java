@@ -0,0 +1,15 @@
+package com.example.pedidos.DTO;
+
+import java.util.List;
+
+public class PaginaPedidosDTO {
+    public List<PedidoResumoDTO> pedidos;
+
+    // Token opaco para buscar a próxima página (null quando não há mais pedidos)
+    public String proximoCursor;
+
+    public PaginaPedidosDTO(List<PedidoResumoDTO> pedidos, String proximoCursor) {
+        this.pedidos = pedidos;
+        this.proximoCursor = proximoCursor;
+    }
+}
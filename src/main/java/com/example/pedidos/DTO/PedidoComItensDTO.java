@@ -1,5 +1,8 @@
 package com.example.pedidos.DTO;
 
+import com.example.pedidos.Models.Centavos;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -8,7 +11,9 @@ public class PedidoComItensDTO {
     public String nomeCliente;
     public String telefone;
     public LocalDateTime dataEntrega;
-    public Double taxaEntrega;
+    @Centavos.EmReais
+    @JsonProperty("taxaEntrega")
+    public long taxaEntregaCentavos;
     public List<ItemDTO> itens;
 
     public static class ItemDTO {
@@ -22,12 +27,12 @@ public class PedidoComItensDTO {
     }
 
     public PedidoComItensDTO(Long id, String nomeCliente, String telefone, LocalDateTime dataEntrega,
-                             Double taxaEntrega, List<ItemDTO> itens) {
+                             long taxaEntregaCentavos, List<ItemDTO> itens) {
         this.id = id;
         this.nomeCliente = nomeCliente;
         this.telefone = telefone;
         this.dataEntrega = dataEntrega;
-        this.taxaEntrega = taxaEntrega;
+        this.taxaEntregaCentavos = taxaEntregaCentavos;
         this.itens = itens;
     }
 }
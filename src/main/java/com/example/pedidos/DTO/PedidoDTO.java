@@ -1,5 +1,8 @@
 package com.example.pedidos.DTO;
 
+import com.example.pedidos.Models.Centavos;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -9,13 +12,17 @@ public class PedidoDTO {
     public String endereco;
 
     public LocalDateTime dataEntrega;
-    public Double taxaEntrega;
+    @Centavos.EmReais
+    @JsonProperty("taxaEntrega")
+    public long taxaEntregaCentavos;
 
     public List<ItemDTO> itens;
 
     public static class ItemDTO {
         public String produto;
         public int quantidade;
-        public Double precoUnitario;
+        @Centavos.EmReais
+        @JsonProperty("precoUnitario")
+        public long precoUnitarioCentavos;
     }
 }
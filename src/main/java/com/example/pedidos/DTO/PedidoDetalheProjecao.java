@@ -0,0 +1,13 @@
+package com.example.pedidos.DTO;
+
+import com.example.pedidos.Models.Produto;
+
+import java.time.LocalDateTime;
+
+// Detalhe do pedido numa consulta só: uma linha por item com quantidade > 0 (campos do item nulos
+// quando não há nenhum), com o pedido e o cliente repetidos em cada linha
+public record PedidoDetalheProjecao(Long pedidoId, Long versao, LocalDateTime dataEntrega, long taxaEntregaCentavos,
+                                    Long clienteId, String nome, String telefone, String endereco, LocalDateTime data,
+                                    Long itemId, Produto produto, Integer quantidade,
+                                    Long precoUnitarioCentavos, Long subtotalCentavos) {
+}
@@ -0,0 +1,22 @@
+package com.example.pedidos.DTO;
+
+import com.example.pedidos.Models.Produto;
+
+import java.time.LocalDateTime;
+
+// Uma linha por item (pedido sem itens vem com os campos do item nulos), ordenada por pedido.
+// Valores em centavos
+public record PedidoExportacaoProjecao(
+        Long pedidoId,
+        String nome,
+        String telefone,
+        String endereco,
+        LocalDateTime dataEntrega,
+        long taxaEntregaCentavos,
+        long valorTotalCentavos,
+        Produto produto,
+        Integer quantidade,
+        Long precoUnitarioCentavos,
+        Long subtotalCentavos
+) {
+}
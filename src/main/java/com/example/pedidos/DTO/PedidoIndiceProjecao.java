@@ -0,0 +1,9 @@
+package com.example.pedidos.DTO;
+
+import com.example.pedidos.Models.Produto;
+
+import java.time.LocalDateTime;
+
+// Linha do índice de produtos por pedido: uma por item (produto/quantidade nulos se o pedido não tem itens)
+public record PedidoIndiceProjecao(Long pedidoId, LocalDateTime dataEntrega, Produto produto, Integer quantidade) {
+}
@@ -0,0 +1,7 @@
+package com.example.pedidos.DTO;
+
+import com.example.pedidos.Models.Produto;
+
+// Linha de item lida direto do banco (sem entidade gerenciada), agrupada depois por pedidoId; preço em centavos
+public record PedidoItemProjecao(Long pedidoId, Produto produto, int quantidade, long precoUnitarioCentavos) {
+}
@@ -0,0 +1,19 @@
+package com.example.pedidos.DTO;
+
+import com.example.pedidos.Models.Centavos;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Item de pedido como sai da API; valores em centavos, no JSON em reais
+public record PedidoItemRespostaDTO(Long id,
+                                    Produto produto,
+                                    int quantidade,
+                                    @Centavos.EmReais @JsonProperty("precoUnitario") long precoUnitarioCentavos,
+                                    @Centavos.EmReais @JsonProperty("subtotal") long subtotalCentavos) {
+
+    public static PedidoItemRespostaDTO de(PedidoItem item) {
+        return new PedidoItemRespostaDTO(item.getId(), item.getProduto(), item.getQuantidade(),
+                item.getPrecoUnitarioCentavos(), item.getSubtotalCentavos());
+    }
+}
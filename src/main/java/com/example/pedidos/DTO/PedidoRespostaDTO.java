@@ -0,0 +1,78 @@
+package com.example.pedidos.DTO;
+
+import com.example.pedidos.Models.Centavos;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Pedido como sai da API: mesmo JSON da entidade, mas montado uma vez a partir dela, sem o Jackson
+// percorrer o grafo JPA. itensResumo é montado junto com a lista de itens, não a cada serialização.
+public record PedidoRespostaDTO(Long id,
+                                ClienteRespostaDTO cliente,
+                                List<PedidoItemRespostaDTO> itens,
+                                LocalDateTime dataEntrega,
+                                Long versao,
+                                String itensResumo,
+                                @Centavos.EmReais @JsonProperty("taxaEntrega") long taxaEntregaCentavos,
+                                @Centavos.EmReais @JsonProperty("valorTotal") long valorTotalCentavos) {
+
+    public static PedidoRespostaDTO de(Pedido pedido) {
+        List<PedidoItem> itens = pedido.getItens() != null ? pedido.getItens() : List.of();
+        List<PedidoItemRespostaDTO> itensDTO = new ArrayList<>(itens.size());
+        for (int i = 0, n = itens.size(); i < n; i++) {
+            itensDTO.add(PedidoItemRespostaDTO.de(itens.get(i)));
+        }
+
+        return new PedidoRespostaDTO(
+                pedido.getId(),
+                ClienteRespostaDTO.de(pedido.getCliente()),
+                itensDTO,
+                pedido.getDataEntrega(),
+                pedido.getVersao(),
+                resumo(itensDTO),
+                pedido.getTaxaEntregaCentavos(),
+                pedido.getValorTotalCentavos()
+        );
+    }
+
+    // Linhas da consulta de detalhe (PedidoRepository.detalhe) de um mesmo pedido; o total é a taxa
+    // mais os itens devolvidos
+    public static PedidoRespostaDTO de(List<PedidoDetalheProjecao> linhas) {
+        PedidoDetalheProjecao pedido = linhas.get(0);
+        List<PedidoItemRespostaDTO> itensDTO = new ArrayList<>(linhas.size());
+        long total = pedido.taxaEntregaCentavos();
+        for (int i = 0, n = linhas.size(); i < n; i++) {
+            PedidoDetalheProjecao linha = linhas.get(i);
+            if (linha.itemId() == null) continue;
+            itensDTO.add(new PedidoItemRespostaDTO(linha.itemId(), linha.produto(), linha.quantidade(),
+                    linha.precoUnitarioCentavos(), linha.subtotalCentavos()));
+            total += linha.subtotalCentavos();
+        }
+
+        return new PedidoRespostaDTO(
+                pedido.pedidoId(),
+                new ClienteRespostaDTO(pedido.clienteId(), pedido.nome(), pedido.telefone(), pedido.endereco(), pedido.data()),
+                itensDTO,
+                pedido.dataEntrega(),
+                pedido.versao(),
+                resumo(itensDTO),
+                pedido.taxaEntregaCentavos(),
+                total
+        );
+    }
+
+    private static String resumo(List<PedidoItemRespostaDTO> itens) {
+        if (itens.isEmpty()) return "-";
+        StringBuilder resumo = new StringBuilder();
+        for (int i = 0, n = itens.size(); i < n; i++) {
+            PedidoItemRespostaDTO item = itens.get(i);
+            if (i > 0) resumo.append(", ");
+            resumo.append(item.produto().getDescricao()).append(" x").append(item.quantidade());
+        }
+        return resumo.toString();
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.pedidos.DTO;
 
+import com.example.pedidos.Models.Centavos;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -9,7 +12,9 @@ public class PedidoResumoDTO {
     public String telefone;
     public String endereco;
     public LocalDateTime dataEntrega;
-    public Double taxaEntrega;
+    @Centavos.EmReais
+    @JsonProperty("taxaEntrega")
+    public long taxaEntregaCentavos;
 
     // 💡 CRÍTICO: Novo campo para a lista de itens
     public List<ItemDTO> itens;
@@ -18,14 +23,16 @@ public class PedidoResumoDTO {
     public static class ItemDTO {
         public String produto;          // O código do Enum (ex: "FILE")
         public int quantidade;
-        public Double precoUnitario;
+        @Centavos.EmReais
+        @JsonProperty("precoUnitario")
+        public long precoUnitarioCentavos;
         public String descricao;    // A descrição amigável (ex: "Filé de Tilápia - 1kg")
 
         // Construtor para ItemDTO (opcional, mas recomendado para mapeamento)
-        public ItemDTO(String produto, int quantidade, Double precoUnitario, String descricao) {
+        public ItemDTO(String produto, int quantidade, long precoUnitarioCentavos, String descricao) {
             this.produto = produto;
             this.quantidade = quantidade;
-            this.precoUnitario = precoUnitario;
+            this.precoUnitarioCentavos = precoUnitarioCentavos;
             this.descricao = descricao;
         }
     }
@@ -35,18 +42,18 @@ public class PedidoResumoDTO {
     // Para a edição, você fará a chamada de serviço mapeando os itens.
 
     // Construtor para listagem (sem itens)
-    public PedidoResumoDTO(Long id, String nomeCliente, String telefone, String endereco, LocalDateTime dataEntrega, Double taxaEntrega) {
+    public PedidoResumoDTO(Long id, String nomeCliente, String telefone, String endereco, LocalDateTime dataEntrega, long taxaEntregaCentavos) {
         this.id = id;
         this.nomeCliente = nomeCliente;
         this.telefone = telefone;
         this.endereco = endereco;
         this.dataEntrega = dataEntrega;
-        this.taxaEntrega = taxaEntrega;
+        this.taxaEntregaCentavos = taxaEntregaCentavos;
     }
 
     // Construtor completo para a tela de edição
-    public PedidoResumoDTO(Long id, String nomeCliente, String telefone, String endereco, LocalDateTime dataEntrega, Double taxaEntrega, List<ItemDTO> itens) {
-        this(id, nomeCliente, telefone, endereco, dataEntrega, taxaEntrega);
+    public PedidoResumoDTO(Long id, String nomeCliente, String telefone, String endereco, LocalDateTime dataEntrega, long taxaEntregaCentavos, List<ItemDTO> itens) {
+        this(id, nomeCliente, telefone, endereco, dataEntrega, taxaEntregaCentavos);
         this.itens = itens;
     }
 }
\ No newline at end of file
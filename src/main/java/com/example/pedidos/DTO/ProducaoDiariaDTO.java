@@ -0,0 +1,24 @@
+package com.example.pedidos.DTO;
+
+import com.example.pedidos.Models.Centavos;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+
+public class ProducaoDiariaDTO {
+    public LocalDate data;
+    public String produto;
+    public String descricao;
+    public long quantidade;
+    @Centavos.EmReais
+    @JsonProperty("receita")
+    public long receitaCentavos;
+
+    public ProducaoDiariaDTO(LocalDate data, String produto, String descricao, long quantidade, long receitaCentavos) {
+        this.data = data;
+        this.produto = produto;
+        this.descricao = descricao;
+        this.quantidade = quantidade;
+        this.receitaCentavos = receitaCentavos;
+    }
+}
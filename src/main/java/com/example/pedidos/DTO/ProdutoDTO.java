@@ -1,13 +1,18 @@
 package com.example.pedidos.DTO;
 
+import com.example.pedidos.Models.Centavos;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class ProdutoDTO {
     public String codigo;
     public String descricao;
-    public double preco;
+    @Centavos.EmReais
+    @JsonProperty("preco")
+    public long precoCentavos;
 
-    public ProdutoDTO(String codigo, String descricao, double preco) {
+    public ProdutoDTO(String codigo, String descricao, long precoCentavos) {
         this.codigo = codigo;
         this.descricao = descricao;
-        this.preco = preco;
+        this.precoCentavos = precoCentavos;
     }
 }
@@ -0,0 +1,12 @@
+package com.example.pedidos.DTO;
+
+import java.util.List;
+
+// Resultado da busca com filtros: os pedidos (PedidoResumoDTO, ou PedidoComItensDTO quando filtra
+// por produto) e se a lista foi cortada no limite da busca (há mais pedidos que casam)
+public record ResultadoBuscaDTO(List<?> pedidos, boolean truncado) {
+
+    public static ResultadoBuscaDTO vazio() {
+        return new ResultadoBuscaDTO(List.of(), false);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.pedidos.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultadoImportacaoDTO {
+    public long linhas;
+    public long importados;
+    public List<ErroDTO> erros = new ArrayList<>();
+
+    // Erros além do limite listado em "erros" são apenas contados aqui
+    public long errosOmitidos;
+
+    public static class ErroDTO {
+        public long linha;
+        public String mensagem;
+
+        public ErroDTO(long linha, String mensagem) {
+            this.linha = linha;
+            this.mensagem = mensagem;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.pedidos.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultadoLoteDTO {
+    public int recebidos;
+    public int gravados;
+    // Um resultado por pedido recebido, na mesma ordem (resultados.get(i) é o do i-ésimo pedido)
+    public List<ItemDTO> resultados = new ArrayList<>();
+    public List<ErroDTO> erros = new ArrayList<>();
+
+    public ResultadoLoteDTO() {}
+
+    public ResultadoLoteDTO(int recebidos) {
+        this.recebidos = recebidos;
+        for (int i = 0; i < recebidos; i++) resultados.add(null);
+    }
+
+    public void gravado(int posicao, Long id) {
+        resultados.set(posicao, new ItemDTO(posicao, id, null, null));
+        gravados++;
+    }
+
+    public void erro(int posicao, String mensagem, boolean temporario) {
+        resultados.set(posicao, new ItemDTO(posicao, null, mensagem, temporario ? Boolean.TRUE : null));
+        erros.add(new ErroDTO(posicao, mensagem));
+    }
+
+    // Resultado de uma posição: id do pedido gravado ou a mensagem de erro.
+    // temporario = true quando a falha foi do banco (conexão, timeout) e o pedido pode ser reenviado
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemDTO(int posicao, Long id, String erro, Boolean temporario) {}
+
+    // Erro de um pedido específico do lote (posição começa em 0)
+    public static class ErroDTO {
+        public int posicao;
+        public String mensagem;
+
+        public ErroDTO(int posicao, String mensagem) {
+            this.posicao = posicao;
+            this.mensagem = mensagem;
+        }
+    }
+}
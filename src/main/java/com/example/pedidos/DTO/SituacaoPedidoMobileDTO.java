@@ -0,0 +1,24 @@
+package com.example.pedidos.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// Situação de um pedido recebido pela fila do mobile (GET /api/pedidos/mobile/{id})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SituacaoPedidoMobileDTO(String id, Estado estado, LocalDateTime recebidoEm, Long pedidoId, String erro) {
+
+    public enum Estado { RECEBIDO, GRAVADO, ERRO }
+
+    public static SituacaoPedidoMobileDTO recebido(String id, LocalDateTime recebidoEm) {
+        return new SituacaoPedidoMobileDTO(id, Estado.RECEBIDO, recebidoEm, null, null);
+    }
+
+    public SituacaoPedidoMobileDTO gravado(Long pedidoId) {
+        return new SituacaoPedidoMobileDTO(id, Estado.GRAVADO, recebidoEm, pedidoId, null);
+    }
+
+    public SituacaoPedidoMobileDTO comErro(String erro) {
+        return new SituacaoPedidoMobileDTO(id, Estado.ERRO, recebidoEm, null, erro);
+    }
+}
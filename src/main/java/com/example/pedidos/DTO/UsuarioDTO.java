@@ -0,0 +1,11 @@
+package com.example.pedidos.DTO;
+
+import com.example.pedidos.Models.User;
+
+// Usuário autenticado devolvido no login (sem a senha)
+public record UsuarioDTO(Long id, String nome, String email) {
+
+    public static UsuarioDTO de(User user) {
+        return new UsuarioDTO(user.getId(), user.getNome(), user.getEmail());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.pedidos.DTO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// O que muda a resposta de GET /api/pedidos/{id}: a versão do pedido e a última alteração do cliente
+// (editar o cliente não incrementa a versão do pedido, mas muda nome/telefone/endereço no corpo)
+public record VersaoPedidoProjecao(Long pedidoId, Long versao, Long clienteId, LocalDateTime clienteAtualizadoEm) {
+
+    public String etag() {
+        return etag(pedidoId, versao, marcaCliente(clienteAtualizadoEm));
+    }
+
+    public static String etag(Long pedidoId, long versao, long marcaCliente) {
+        return "\"" + pedidoId + "-" + versao + "-" + Long.toString(marcaCliente, 36) + "\"";
+    }
+
+    // Última alteração do cliente em microssegundos (0 para cliente nunca alterado)
+    public static long marcaCliente(LocalDateTime atualizadoEm) {
+        return atualizadoEm == null ? 0
+                : atualizadoEm.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + atualizadoEm.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.pedidos.Models;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Dinheiro em centavos (long) do banco até os totais: soma exata e sem objetos.
+// No JSON os valores continuam em reais (53.9), como antes; @EmReais faz a conversão.
+public final class Centavos {
+
+    private Centavos() {}
+
+    public static long deReais(BigDecimal reais) {
+        return reais.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // "53.90", "53.9" ou "53"
+    public static long deReais(String reais) {
+        return deReais(new BigDecimal(reais.trim()));
+    }
+
+    public static BigDecimal emReais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    // Sempre com duas casas: formatar(5390, ',') -> "53,90"
+    public static String formatar(long centavos, char separadorDecimal) {
+        String reais = emReais(centavos).toPlainString();
+        return separadorDecimal == '.' ? reais : reais.replace('.', separadorDecimal);
+    }
+
+    // Campo em centavos que aparece em reais no JSON (null na entrada vira 0)
+    @Target({ElementType.FIELD, ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    @JacksonAnnotationsInside
+    @JsonSerialize(using = Serializador.class)
+    @JsonDeserialize(using = Desserializador.class)
+    public @interface EmReais {}
+
+    public static class Serializador extends StdSerializer<Long> {
+        public Serializador() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long centavos, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(emReais(centavos));
+        }
+    }
+
+    public static class Desserializador extends StdDeserializer<Long> {
+        public Desserializador() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_INT || p.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+                return deReais(p.getDecimalValue());
+            }
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                String texto = p.getText().trim();
+                if (texto.isEmpty()) return 0L;
+                try {
+                    return deReais(texto.replace(',', '.'));
+                } catch (NumberFormatException e) {
+                    return (Long) ctxt.handleWeirdStringValue(Long.class, texto, "valor em reais inválido");
+                }
+            }
+            return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        }
+
+        @Override
+        public Long getNullValue(DeserializationContext ctxt) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.pedidos.Models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Resposta já dada a um POST com Idempotency-Key (mobile e cadastro de pedido).
+// status == null: requisição ainda em andamento, reservada em reservado_em (vale por
+// pedidos.idempotencia.prazo-reserva). Gravada e lida por IdempotenciaService (JDBC).
+@Entity
+@Table(name = "chave_idempotencia", indexes = @Index(name = "idx_chave_idempotencia_criado_em", columnList = "criado_em"))
+public class ChaveIdempotencia {
+    @Id
+    @Column(length = 100)
+    private String chave;
+
+    // SHA-256 de método, rota e corpo: a mesma chave com outra requisição é recusada
+    @Column(name = "hash_requisicao", nullable = false, length = 32)
+    private byte[] hashRequisicao;
+
+    private Integer status;
+
+    @Column(name = "tipo_conteudo", length = 100)
+    private String tipoConteudo;
+
+    @Column(length = 200)
+    private String localizacao;
+
+    @Lob
+    @Column(length = 1 << 20)
+    private byte[] corpo;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "reservado_em")
+    private LocalDateTime reservadoEm;
+
+    public ChaveIdempotencia() {}
+
+    public String getChave() { return chave; }
+    public byte[] getHashRequisicao() { return hashRequisicao; }
+    public Integer getStatus() { return status; }
+    public String getTipoConteudo() { return tipoConteudo; }
+    public String getLocalizacao() { return localizacao; }
+    public byte[] getCorpo() { return corpo; }
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+    public LocalDateTime getReservadoEm() { return reservadoEm; }
+}
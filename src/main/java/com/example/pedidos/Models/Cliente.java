@@ -1,11 +1,18 @@
 package com.example.pedidos.Models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDateTime;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cliente")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_cliente_telefone_normalizado", columnNames = "telefone_normalizado"),
+        indexes = @Index(name = "idx_cliente_atualizado_em", columnList = "atualizado_em"))
 public class Cliente {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,6 +26,11 @@ public class Cliente {
     @Size(max = 20, message = "O telefone deve ter no máximo 20 caracteres")
     private String telefone;
 
+    // Chave única do cliente (Telefones.normalizar); acompanha o telefone, não vai para o JSON
+    @JsonIgnore
+    @Column(name = "telefone_normalizado", nullable = false, length = 20)
+    private String telefoneNormalizado;
+
     @NotBlank(message = "O endereço não pode estar em branco")
     @Size(max = 200, message = "O endereço deve ter no máximo 200 caracteres")
     private String endereco;
@@ -26,10 +38,17 @@ public class Cliente {
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private LocalDateTime data;
 
+    // Última gravação da linha (o upsert por telefone também preenche); os pedidos do cliente
+    // entram no feed de alterações quando ela muda
+    @JsonIgnore
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+
     public Cliente(Long id, String nome, String telefone, String endereco, LocalDateTime data) {
         this.id = id;
         this.nome = nome;
-        this.telefone = telefone;
+        setTelefone(telefone);
         this.endereco = endereco;
         this.data = data;
     }
@@ -39,12 +58,17 @@ public class Cliente {
     public Long getId() { return this.id; }
     public String getNome() { return this.nome; }
     public String getTelefone() { return this.telefone; }
+    public String getTelefoneNormalizado() { return this.telefoneNormalizado; }
     public String getEndereco() { return this.endereco; }
     public LocalDateTime getData() { return this.data; }
+    public LocalDateTime getAtualizadoEm() { return this.atualizadoEm; }
 
     public void setId(Long id) { this.id = id; }
     public void setNome(String nome) { this.nome = nome; }
-    public void setTelefone(String telefone) { this.telefone = telefone; }
+    public void setTelefone(String telefone) {
+        this.telefone = telefone;
+        this.telefoneNormalizado = Telefones.normalizar(telefone);
+    }
     public void setEndereco(String endereco) { this.endereco = endereco; }
     public void setData(LocalDateTime data) { this.data = data; }
 }
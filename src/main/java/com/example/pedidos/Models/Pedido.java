@@ -1,8 +1,14 @@
 package com.example.pedidos.Models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDateTime;
@@ -11,9 +17,17 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Entity
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pedido")
+@Table(indexes = {
+        @Index(name = "idx_pedido_data_entrega_id", columnList = "data_entrega, id"),
+        @Index(name = "idx_pedido_atualizado_em", columnList = "atualizado_em")
+})
 public class Pedido {
+    // SEQUENCE (em vez de IDENTITY) permite ao Hibernate agrupar os INSERTs em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_seq")
+    @SequenceGenerator(name = "pedido_seq", sequenceName = "pedido_seq", allocationSize = 50)
     private Long id;
 
     // Removi cascade = CascadeType.ALL aqui — NÃO queríamos propagar remoções para Cliente
@@ -21,31 +35,51 @@ public class Pedido {
     @NotNull(message = "Cliente é obrigatório")
     private Cliente cliente;
 
+    // Em cache guarda só os ids; os itens vêm da região pedido-item
     @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pedido-itens")
     @JsonManagedReference
     private List<PedidoItem> itens = new ArrayList<>();
 
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private LocalDateTime dataEntrega;
 
-    private Double taxaEntrega;
+    // Valores em centavos; no JSON saem em reais
+    @Centavos.EmReais
+    @JsonProperty("taxaEntrega")
+    @Column(name = "taxa_entrega_centavos", nullable = false)
+    private long taxaEntregaCentavos;
 
-    private Double valorTotal;
+    @Centavos.EmReais
+    @JsonProperty("valorTotal")
+    @Column(name = "valor_total_centavos", nullable = false)
+    private long valorTotalCentavos;
+
+    // Incrementada a cada alteração; base do ETag das respostas do pedido
+    @Version
+    private Long versao;
+
+    // Última gravação da linha; base do feed de alterações (GET /api/pedidos/changes)
+    @JsonIgnore
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
 
     @Transient
     private String itensResumo;
 
+    // Só na inclusão: na edição o serviço ajusta o total pela diferença dos itens
     @PrePersist
-    @PreUpdate
     public void calcularTotal() {
-        double somaItens = 0.0;
+        long total = taxaEntregaCentavos;
         if (itens != null) {
-            for (PedidoItem i : itens) {
-                i.calcularSubtotal();
-                somaItens += i.getSubtotal();
+            for (int i = 0, n = itens.size(); i < n; i++) {
+                PedidoItem item = itens.get(i);
+                item.calcularSubtotal();
+                total += item.getSubtotalCentavos();
             }
         }
-        this.valorTotal = somaItens + (taxaEntrega != null ? taxaEntrega : 0.0);
+        this.valorTotalCentavos = total;
     }
 
     public String getItensResumo() {
@@ -60,13 +94,16 @@ public class Pedido {
     public Cliente getCliente() { return cliente; }
     public List<PedidoItem> getItens() { return itens; }
     public LocalDateTime getDataEntrega() { return dataEntrega; }
-    public Double getTaxaEntrega() { return taxaEntrega; }
-    public Double getValorTotal() { return valorTotal; }
+    public long getTaxaEntregaCentavos() { return taxaEntregaCentavos; }
+    public long getValorTotalCentavos() { return valorTotalCentavos; }
+    public Long getVersao() { return versao; }
+    public LocalDateTime getAtualizadoEm() { return atualizadoEm; }
 
     public void setCliente(Cliente cliente) { this.cliente = cliente; }
     public void setItens(List<PedidoItem> itens) { this.itens = itens; }
     public void setDataEntrega(LocalDateTime dataEntrega) { this.dataEntrega = dataEntrega; }
-    public void setTaxaEntrega(Double taxaEntrega) { this.taxaEntrega = taxaEntrega; }
-    public void setValorTotal(double total) { this.valorTotal = total; }
+    public void setTaxaEntregaCentavos(long taxaEntregaCentavos) { this.taxaEntregaCentavos = taxaEntregaCentavos; }
+    public void setValorTotalCentavos(long valorTotalCentavos) { this.valorTotalCentavos = valorTotalCentavos; }
     public void setId(Long id) { this.id = id; }
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) { this.atualizadoEm = atualizadoEm; }
 }
@@ -0,0 +1,28 @@
+package com.example.pedidos.Models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Marca de exclusão para o feed de alterações (GET /api/pedidos/changes): o app remove o pedido
+// da lista local. Mantida por pedidos.alteracoes.retencao; depois disso o app recarrega tudo.
+@Entity
+@Table(name = "pedido_excluido", indexes = @Index(name = "idx_pedido_excluido_excluido_em", columnList = "excluido_em"))
+public class PedidoExcluido {
+    @Id
+    @Column(name = "pedido_id")
+    private Long pedidoId;
+
+    @Column(name = "excluido_em", nullable = false)
+    private LocalDateTime excluidoEm;
+
+    public PedidoExcluido(Long pedidoId, LocalDateTime excluidoEm) {
+        this.pedidoId = pedidoId;
+        this.excluidoEm = excluidoEm;
+    }
+
+    public PedidoExcluido() {}
+
+    public Long getPedidoId() { return pedidoId; }
+    public LocalDateTime getExcluidoEm() { return excluidoEm; }
+}
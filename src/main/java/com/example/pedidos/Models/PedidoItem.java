@@ -1,14 +1,22 @@
 package com.example.pedidos.Models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pedido-item")
 public class PedidoItem {
+    // SEQUENCE (em vez de IDENTITY) permite ao Hibernate agrupar os INSERTs em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_item_seq")
+    @SequenceGenerator(name = "pedido_item_seq", sequenceName = "pedido_item_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -18,10 +26,16 @@ public class PedidoItem {
     @Min(value = 0, message = "Quantidade deve ser >= 0")
     private int quantidade;
 
-    @Column(name = "preco_unitario")
-    private Double precoUnitario;
+    // Valores em centavos; no JSON saem em reais
+    @Centavos.EmReais
+    @JsonProperty("precoUnitario")
+    @Column(name = "preco_unitario_centavos", nullable = false)
+    private long precoUnitarioCentavos;
 
-    private double subtotal;
+    @Centavos.EmReais
+    @JsonProperty("subtotal")
+    @Column(name = "subtotal_centavos", nullable = false)
+    private long subtotalCentavos;
 
     @ManyToOne
     @JsonBackReference
@@ -30,10 +44,7 @@ public class PedidoItem {
     public PedidoItem(Produto produto, int quantidade) {
         this.produto = produto;
         this.quantidade = quantidade;
-        if (produto != null) {
-            this.precoUnitario = produto.getPreco();
-            this.subtotal = this.precoUnitario * quantidade;
-        }
+        calcularSubtotal();
     }
 
     public PedidoItem() {}
@@ -42,23 +53,23 @@ public class PedidoItem {
     @PreUpdate
     public void calcularSubtotal() {
         if (produto != null) {
-            this.precoUnitario = produto.getPreco();
-            this.subtotal = this.precoUnitario * quantidade;
+            this.precoUnitarioCentavos = produto.getPrecoCentavos();
+            this.subtotalCentavos = this.precoUnitarioCentavos * quantidade;
         } else {
-            this.subtotal = 0.0;
+            this.subtotalCentavos = 0;
         }
     }
 
     public Long getId() { return id; }
     public Produto getProduto() { return produto; }
     public int getQuantidade() { return quantidade; }
-    public Double getPrecoUnitario() { return precoUnitario; }
-    public double getSubtotal() { return subtotal; }
+    public long getPrecoUnitarioCentavos() { return precoUnitarioCentavos; }
+    public long getSubtotalCentavos() { return subtotalCentavos; }
     public Pedido getPedido() { return pedido; }
 
     public void setProduto(Produto produto) { this.produto = produto; }
     public void setQuantidade(int quantidade) { this.quantidade = quantidade; }
     public void setPedido(Pedido pedido) { this.pedido = pedido; }
-    public void setPrecoUnitario(Double precoUnitario) { this.precoUnitario = precoUnitario; }
-    public void setSubtotal(double subtotal) { this.subtotal = subtotal; }
+    public void setPrecoUnitarioCentavos(long precoUnitarioCentavos) { this.precoUnitarioCentavos = precoUnitarioCentavos; }
+    public void setSubtotalCentavos(long subtotalCentavos) { this.subtotalCentavos = subtotalCentavos; }
 }
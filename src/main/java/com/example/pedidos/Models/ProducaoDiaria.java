@@ -0,0 +1,67 @@
+package com.example.pedidos.Models;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Consolidado de produção por dia de entrega e produto, mantido a cada gravação de pedido
+@Entity
+@Table(name = "producao_diaria")
+@IdClass(ProducaoDiaria.Chave.class)
+public class ProducaoDiaria {
+    @Id
+    private LocalDate data;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Produto produto;
+
+    private long quantidade;
+
+    @Column(name = "receita_centavos")
+    private long receitaCentavos;
+
+    public ProducaoDiaria(LocalDate data, Produto produto, long quantidade, long receitaCentavos) {
+        this.data = data;
+        this.produto = produto;
+        this.quantidade = quantidade;
+        this.receitaCentavos = receitaCentavos;
+    }
+
+    public ProducaoDiaria() {}
+
+    public LocalDate getData() { return data; }
+    public Produto getProduto() { return produto; }
+    public long getQuantidade() { return quantidade; }
+    public long getReceitaCentavos() { return receitaCentavos; }
+
+    public static class Chave implements Serializable {
+        private LocalDate data;
+        private Produto produto;
+
+        public Chave(LocalDate data, Produto produto) {
+            this.data = data;
+            this.produto = produto;
+        }
+
+        public Chave() {}
+
+        public LocalDate getData() { return data; }
+        public Produto getProduto() { return produto; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave outra)) return false;
+            return Objects.equals(data, outra.data) && produto == outra.produto;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(data, produto);
+        }
+    }
+}
@@ -1,28 +1,29 @@
 package com.example.pedidos.Models;
 
 public enum Produto {
-    FILE("Filé de Tilápia - 1kg", 53.90),
-    MEIOFILE("Filé de Tilápia - 500g", 29.90),
-    TIRAS("Filé de Tilápia em tiras", 24.90),
-    COSTELINHA("Costelinha de Tilápia", 26.90),
-    ESPALMADA("Tilápia inteira espalmada", 31.90),
-    EMPANADINHO("Empanadinho de Tilápia", 34.90),
-    COMBO("Filé + Tiras", 51.90),
-    TEMPERO("Tempero Supreme", 3.00);
+    FILE("Filé de Tilápia - 1kg", 5390),
+    MEIOFILE("Filé de Tilápia - 500g", 2990),
+    TIRAS("Filé de Tilápia em tiras", 2490),
+    COSTELINHA("Costelinha de Tilápia", 2690),
+    ESPALMADA("Tilápia inteira espalmada", 3190),
+    EMPANADINHO("Empanadinho de Tilápia", 3490),
+    COMBO("Filé + Tiras", 5190),
+    TEMPERO("Tempero Supreme", 300);
 
     private final String descricao;
-    private final double preco;
+    // Preço em centavos (ver Centavos)
+    private final long precoCentavos;
 
-    Produto(String descricao, double preco) {
+    Produto(String descricao, long precoCentavos) {
         this.descricao = descricao;
-        this.preco = preco;
+        this.precoCentavos = precoCentavos;
     }
 
     public String getDescricao() {
         return descricao;
     }
 
-    public double getPreco() {
-        return preco;
+    public long getPrecoCentavos() {
+        return precoCentavos;
     }
 }
@@ -0,0 +1,24 @@
+package com.example.pedidos.Models;
+
+// Forma canônica do telefone usada como chave de busca do cliente:
+// "(11) 98888-7777", "11 988887777" e "11988887777" viram a mesma chave.
+public final class Telefones {
+
+    private Telefones() {}
+
+    // Só os dígitos, sem prefixo internacional (00), código do país (55) ou zero de discagem
+    // interurbana: sobra DDD + número. null continua null
+    public static String normalizar(String telefone) {
+        if (telefone == null) return null;
+        StringBuilder digitos = new StringBuilder(telefone.length());
+        for (int i = 0; i < telefone.length(); i++) {
+            char c = telefone.charAt(i);
+            if (c >= '0' && c <= '9') digitos.append(c);
+        }
+        String numero = digitos.toString();
+        if (numero.startsWith("00")) numero = numero.substring(2);
+        if (numero.startsWith("55") && (numero.length() == 12 || numero.length() == 13)) numero = numero.substring(2);
+        if (numero.startsWith("0") && (numero.length() == 11 || numero.length() == 12)) numero = numero.substring(1);
+        return numero;
+    }
+}
@@ -1,11 +1,33 @@
 package com.example.pedidos.Repositories;
 
+import com.example.pedidos.DTO.ClienteBuscaProjecao;
 import com.example.pedidos.Models.Cliente;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
-    Cliente findByTelefone(String telefone);
-    boolean existsByTelefone(String telefone);
-    boolean existsByTelefoneAndIdNot(String telefone, Long id);
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteRepositoryUpsert {
+    // Resultado (o id) no cache de consultas; invalidado a cada gravação na tabela cliente
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "cliente-por-telefone")})
+    Cliente findByTelefoneNormalizado(String telefoneNormalizado);
+    boolean existsByTelefoneNormalizado(String telefoneNormalizado);
+    boolean existsByTelefoneNormalizadoAndIdNot(String telefoneNormalizado, Long id);
+
+    // Carga do índice de busca por nome/telefone (só as colunas indexadas)
+    @Query("SELECT new com.example.pedidos.DTO.ClienteBuscaProjecao(c.id, c.nome, c.telefoneNormalizado) FROM Cliente c")
+    List<ClienteBuscaProjecao> listarParaBusca();
+
+    @Query("SELECT new com.example.pedidos.DTO.ClienteBuscaProjecao(c.id, c.nome, c.telefoneNormalizado) " +
+            "FROM Cliente c WHERE c.id IN :ids")
+    List<ClienteBuscaProjecao> listarParaBusca(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
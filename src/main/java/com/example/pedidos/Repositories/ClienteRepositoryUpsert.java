@@ -0,0 +1,14 @@
+package com.example.pedidos.Repositories;
+
+import com.example.pedidos.Models.Cliente;
+
+// Resolução de cliente pelo telefone normalizado em um único comando no banco (sem ler antes)
+public interface ClienteRepositoryUpsert {
+
+    // Cria o cliente ou atualiza nome, telefone e endereço do existente; devolve o id (quem precisa
+    // só associar o cliente usa getReference, sem carregar a linha)
+    Long gravarPorTelefone(Cliente dados);
+
+    // Cria o cliente só se o telefone ainda não existe (não altera o cadastro); devolve o id
+    Long inserirSeAusente(Cliente dados);
+}
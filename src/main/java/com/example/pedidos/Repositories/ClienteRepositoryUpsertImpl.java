@@ -0,0 +1,163 @@
+package com.example.pedidos.Repositories;
+
+import com.example.pedidos.Models.Cliente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Hibernate;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Upsert nativo sobre o índice único uk_cliente_telefone_normalizado: dois pedidos simultâneos
+// de um cliente novo não geram dois cadastros, e o id volta na mesma ida ao banco.
+// Roda na conexão da transação JPA corrente (o JdbcTemplate participa dela). Como não passa pelo
+// save do Hibernate, a validação da entidade (@NotBlank, @Size) é feita aqui antes do comando.
+class ClienteRepositoryUpsertImpl implements ClienteRepositoryUpsert {
+
+    private static final String COLUNAS = "(telefone_normalizado, nome, telefone, endereco, data, atualizado_em)";
+
+    // MySQL: LAST_INSERT_ID(id) faz o id da linha existente voltar como chave gerada. Com o padrão
+    // do Connector/J (useAffectedRows=false) a linha encontrada conta mesmo quando nada muda.
+    private static final String MYSQL_INSERT = "INSERT INTO cliente " + COLUNAS + " VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)";
+    // atualizado_em só muda se algum campo mudar (senão todos os pedidos do cliente voltariam ao feed
+    // de alterações a cada pedido novo); vem antes porque o MySQL aplica as atribuições em ordem
+    private static final String MYSQL_ATUALIZAR = ", atualizado_em = IF(nome <=> VALUES(nome) AND telefone <=> VALUES(telefone) " +
+            "AND endereco <=> VALUES(endereco), atualizado_em, VALUES(atualizado_em)), " +
+            "nome = VALUES(nome), telefone = VALUES(telefone), endereco = VALUES(endereco)";
+
+    // H2 (testes e ambiente local): MERGE dentro de FINAL TABLE devolve o id da linha final
+    private static final String H2_MERGE = "SELECT id FROM FINAL TABLE (MERGE INTO cliente c USING (VALUES (" +
+            "CAST(? AS VARCHAR(20)), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(20)), " +
+            "CAST(? AS VARCHAR(200)), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))) AS n " + COLUNAS + " " +
+            "ON c.telefone_normalizado = n.telefone_normalizado " +
+            "WHEN MATCHED THEN UPDATE SET %s " +
+            "WHEN NOT MATCHED THEN INSERT " + COLUNAS + " " +
+            "VALUES (n.telefone_normalizado, n.nome, n.telefone, n.endereco, n.data, n.atualizado_em))";
+    private static final String H2_ATUALIZAR = "nome = n.nome, telefone = n.telefone, endereco = n.endereco, " +
+            "atualizado_em = CASE WHEN c.nome IS NOT DISTINCT FROM n.nome AND c.telefone IS NOT DISTINCT FROM n.telefone " +
+            "AND c.endereco IS NOT DISTINCT FROM n.endereco THEN c.atualizado_em ELSE n.atualizado_em END";
+    private static final String H2_MANTER = "nome = c.nome";
+    private static final int TENTATIVAS_H2 = 3;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+
+    // Descoberto na primeira chamada (a aplicação sobe mesmo sem banco)
+    private volatile Boolean h2;
+
+    ClienteRepositoryUpsertImpl(JdbcTemplate jdbcTemplate, Validator validator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+    }
+
+    @Override
+    public Long gravarPorTelefone(Cliente dados) {
+        Long id = executar(dados, true);
+        invalidarCache(id);
+
+        // Já carregado nesta sessão, o estado em memória ficou para trás: sai do contexto de
+        // persistência e a próxima leitura vem do banco
+        Cliente carregado = entityManager.getReference(Cliente.class, id);
+        if (Hibernate.isInitialized(carregado)) entityManager.detach(carregado);
+        return id;
+    }
+
+    @Override
+    public Long inserirSeAusente(Cliente dados) {
+        Long id = executar(dados, false);
+        invalidarCache(id);
+        return id;
+    }
+
+    // O upsert passa por fora do Hibernate: tira o cliente do cache de 2º nível e marca a tabela
+    // como alterada (consultas em cache sobre cliente deixam de valer). Repete no fim da transação
+    // para não ficar em cache a versão anterior lida por outra transação antes do commit.
+    private void invalidarCache(Long id) {
+        SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+        CacheImplementor cache = sessao.getFactory().getCache();
+        String[] tabelas = {"cliente"};
+
+        cache.evictEntityData(Cliente.class, id);
+        cache.getTimestampsCache().preInvalidate(tabelas, sessao);
+        sessao.getActionQueue().registerProcess((sucesso, s) -> {
+            cache.evictEntityData(Cliente.class, id);
+            cache.getTimestampsCache().invalidate(tabelas, s);
+        });
+    }
+
+    private Long executar(Cliente dados, boolean atualizar) {
+        if (dados.getTelefoneNormalizado() == null || dados.getTelefoneNormalizado().isEmpty())
+            throw new IllegalArgumentException("Telefone do cliente é obrigatório.");
+        validar(dados);
+
+        if (isH2()) {
+            // O MERGE do H2 não é atômico: com outra transação inserindo o mesmo telefone ele falha
+            // por chave duplicada, e a nova tentativa encontra a linha já gravada
+            String sql = String.format(H2_MERGE, atualizar ? H2_ATUALIZAR : H2_MANTER);
+            for (int tentativa = 1; ; tentativa++) {
+                try {
+                    return jdbcTemplate.query(con -> preencher(con.prepareStatement(sql), dados),
+                            rs -> rs.next() ? rs.getLong(1) : null);
+                } catch (DuplicateKeyException e) {
+                    if (tentativa == TENTATIVAS_H2) throw e;
+                }
+            }
+        }
+
+        String sql = atualizar ? MYSQL_INSERT + MYSQL_ATUALIZAR : MYSQL_INSERT;
+        KeyHolder chave = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> preencher(con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS), dados), chave);
+        // Atualização de linha existente pode reportar mais de uma chave; a primeira é o id
+        return ((Number) chave.getKeyList().get(0).values().iterator().next()).longValue();
+    }
+
+    private void validar(Cliente dados) {
+        Set<ConstraintViolation<Cliente>> violacoes = validator.validate(dados);
+        if (!violacoes.isEmpty()) {
+            throw new IllegalArgumentException(violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private static PreparedStatement preencher(PreparedStatement ps, Cliente dados) throws SQLException {
+        ps.setString(1, dados.getTelefoneNormalizado());
+        ps.setString(2, dados.getNome());
+        ps.setString(3, dados.getTelefone());
+        ps.setString(4, dados.getEndereco());
+        if (dados.getData() != null) {
+            ps.setObject(5, dados.getData());
+        } else {
+            ps.setNull(5, Types.TIMESTAMP);
+        }
+        ps.setObject(6, LocalDateTime.now());
+        return ps;
+    }
+
+    private boolean isH2() {
+        if (h2 == null) {
+            h2 = jdbcTemplate.execute((ConnectionCallback<Boolean>) con ->
+                    "H2".equalsIgnoreCase(con.getMetaData().getDatabaseProductName()));
+        }
+        return h2;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.pedidos.Repositories;
+
+import com.example.pedidos.Models.PedidoExcluido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PedidoExcluidoRepository extends JpaRepository<PedidoExcluido, Long> {
+
+    @Query("SELECT e.pedidoId FROM PedidoExcluido e WHERE e.excluidoEm > :desde")
+    List<Long> excluidosDesde(@Param("desde") LocalDateTime desde);
+
+    @Modifying
+    @Query("DELETE FROM PedidoExcluido e WHERE e.excluidoEm < :limite")
+    int removerAnteriores(@Param("limite") LocalDateTime limite);
+}
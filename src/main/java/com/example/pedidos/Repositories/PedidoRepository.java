@@ -1,17 +1,30 @@
 package com.example.pedidos.Repositories;
 
+import com.example.pedidos.DTO.PedidoDetalheProjecao;
+import com.example.pedidos.DTO.PedidoIndiceProjecao;
+import com.example.pedidos.DTO.PedidoItemProjecao;
+import com.example.pedidos.DTO.PedidoResumoDTO;
+import com.example.pedidos.DTO.VersaoPedidoProjecao;
 import com.example.pedidos.Models.Pedido;
 import com.example.pedidos.Models.Produto;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, JpaSpecificationExecutor<Pedido>,
+        PedidoRepositoryExportacao {
 
     List<Pedido> findByClienteNomeContainingIgnoreCase(String nome);
 
@@ -20,8 +33,67 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     @Query("SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.itens")
     List<Pedido> findAllWithItens();
 
+    // Inicializa a coleção de itens dos pedidos já carregados (uma única consulta para a página toda)
+    @Query("SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.itens WHERE p.id IN :ids")
+    List<Pedido> carregarItens(@Param("ids") List<Long> ids);
+
     @Query("SELECT DISTINCT p FROM Pedido p JOIN FETCH p.itens i WHERE i.produto = :produto")
     List<Pedido> findByProdutoComItens(@Param("produto") Produto produto);
 
     List<Pedido> findByDataEntregaBetween(LocalDateTime inicio, LocalDateTime fim);
+
+    // Detalhe de um pedido (GET /api/pedidos/{id} e /{id}/itens): pedido, cliente e itens com
+    // quantidade > 0 numa única consulta, sem entidades; vazio se o pedido não existe
+    @Query("SELECT new com.example.pedidos.DTO.PedidoDetalheProjecao(" +
+            "p.id, p.versao, p.dataEntrega, p.taxaEntregaCentavos, c.id, c.nome, c.telefone, c.endereco, c.data, " +
+            "i.id, i.produto, i.quantidade, i.precoUnitarioCentavos, i.subtotalCentavos) " +
+            "FROM Pedido p JOIN p.cliente c LEFT JOIN p.itens i ON i.quantidade > 0 " +
+            "WHERE p.id = :id ORDER BY i.id")
+    List<PedidoDetalheProjecao> detalhe(@Param("id") Long id);
+
+    // Só o que compõe o ETag do detalhe: busca por PK, sem itens
+    @Query("SELECT new com.example.pedidos.DTO.VersaoPedidoProjecao(p.id, p.versao, c.id, c.atualizadoEm) " +
+            "FROM Pedido p JOIN p.cliente c WHERE p.id = :id")
+    VersaoPedidoProjecao versao(@Param("id") Long id);
+
+    // ---- Paginação por chave (dataEntrega DESC, id DESC; pedidos sem data vêm por último) ----
+    // Projeções direto no DTO: nenhuma entidade é hidratada na listagem
+
+    String RESUMO = "SELECT new com.example.pedidos.DTO.PedidoResumoDTO(" +
+            "p.id, c.nome, c.telefone, c.endereco, p.dataEntrega, p.taxaEntregaCentavos) " +
+            "FROM Pedido p JOIN p.cliente c ";
+
+    @Query(RESUMO + "WHERE p.dataEntrega IS NOT NULL ORDER BY p.dataEntrega DESC, p.id DESC")
+    List<PedidoResumoDTO> primeiraPagina(Limit limite);
+
+    @Query(RESUMO + "WHERE p.dataEntrega < :data OR (p.dataEntrega = :data AND p.id < :id) " +
+            "ORDER BY p.dataEntrega DESC, p.id DESC")
+    List<PedidoResumoDTO> paginaApos(@Param("data") LocalDateTime data, @Param("id") Long id, Limit limite);
+
+    @Query(RESUMO + "WHERE p.dataEntrega IS NULL AND p.id < :id ORDER BY p.id DESC")
+    List<PedidoResumoDTO> paginaSemDataApos(@Param("id") Long id, Limit limite);
+
+    // ---- Feed de alterações: pedidos gravados, ou cujo cliente foi gravado, depois do instante ----
+
+    @Query(RESUMO + "WHERE p.atualizadoEm > :desde ORDER BY p.id")
+    List<PedidoResumoDTO> alteradosDesde(@Param("desde") LocalDateTime desde, Limit limite);
+
+    @Query(RESUMO + "WHERE c.atualizadoEm > :desde ORDER BY p.id")
+    List<PedidoResumoDTO> clienteAlteradoDesde(@Param("desde") LocalDateTime desde, Limit limite);
+
+    @Query("SELECT new com.example.pedidos.DTO.PedidoItemProjecao(i.pedido.id, i.produto, i.quantidade, i.precoUnitarioCentavos) " +
+            "FROM PedidoItem i WHERE i.pedido.id IN :ids")
+    List<PedidoItemProjecao> itensDosPedidos(@Param("ids") List<Long> ids);
+
+    // ---- Índice de produtos por pedido (IndiceProdutosPedido): uma linha por item, agrupada por pedido ----
+
+    String INDICE = "SELECT new com.example.pedidos.DTO.PedidoIndiceProjecao(p.id, p.dataEntrega, i.produto, i.quantidade) " +
+            "FROM Pedido p LEFT JOIN p.itens i ";
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(INDICE + "ORDER BY p.id")
+    List<PedidoIndiceProjecao> listarParaIndice();
+
+    @Query(INDICE + "WHERE p.id IN :ids ORDER BY p.id")
+    List<PedidoIndiceProjecao> listarParaIndice(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,12 @@
+package com.example.pedidos.Repositories;
+
+import com.example.pedidos.DTO.PedidoExportacaoProjecao;
+
+import java.util.stream.Stream;
+
+// Leitura da exportação completa em streaming, com o fetch size escolhido conforme o banco
+public interface PedidoRepositoryExportacao {
+
+    // Pedidos com itens ordenados por pedido; o Stream precisa ser fechado (e consumido na transação)
+    Stream<PedidoExportacaoProjecao> streamExportacao();
+}
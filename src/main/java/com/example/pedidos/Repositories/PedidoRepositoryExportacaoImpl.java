@@ -0,0 +1,40 @@
+package com.example.pedidos.Repositories;
+
+import com.example.pedidos.DTO.PedidoExportacaoProjecao;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+// No MySQL, fetch size Integer.MIN_VALUE faz o Connector/J entregar o resultado linha a linha, sem
+// carregá-lo inteiro e sem cursor no servidor. Só esta consulta precisa disso: com useCursorFetch na
+// URL, toda consulta com fetch size (índices, paginação) abriria cursor no servidor. A conexão fica
+// dedicada ao resultado até o Stream ser fechado, o que a exportação já garante.
+// Nos demais bancos (H2 do perfil perf) vale o fetch size comum, que eles respeitam.
+class PedidoRepositoryExportacaoImpl implements PedidoRepositoryExportacao {
+
+    private static final String EXPORTACAO = "SELECT new com.example.pedidos.DTO.PedidoExportacaoProjecao(" +
+            "p.id, c.nome, c.telefone, c.endereco, p.dataEntrega, p.taxaEntregaCentavos, p.valorTotalCentavos, " +
+            "i.produto, i.quantidade, i.precoUnitarioCentavos, i.subtotalCentavos) " +
+            "FROM Pedido p JOIN p.cliente c LEFT JOIN p.itens i ORDER BY p.id, i.id";
+    private static final int FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<PedidoExportacaoProjecao> streamExportacao() {
+        return entityManager.createQuery(EXPORTACAO, PedidoExportacaoProjecao.class)
+                .setHint(HINT_FETCH_SIZE, isMySql() ? Integer.MIN_VALUE : FETCH_SIZE)
+                .getResultStream();
+    }
+
+    private boolean isMySql() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+}
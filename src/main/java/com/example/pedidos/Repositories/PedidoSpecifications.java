@@ -0,0 +1,73 @@
+package com.example.pedidos.Repositories;
+
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Filtros da busca de pedidos (/api/pedidos/buscar) montados no banco.
+// Cada método devolve um critério isolado; o serviço combina só os que foram informados.
+public final class PedidoSpecifications {
+
+    // Escape do LIKE: '!' em vez da barra invertida, que o MySQL também trata como escape dentro do literal
+    private static final char ESCAPE = '!';
+
+    private PedidoSpecifications() {}
+
+    // % e _ digitados valem como texto, não como curinga
+    public static Specification<Pedido> clienteNomeContem(String nome) {
+        String padrao = "%" + escaparLike(nome.toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("cliente").get("nome")), padrao, ESCAPE);
+    }
+
+    // Trecho já normalizado (Telefones.normalizar), comparado com a mesma forma gravada no cliente:
+    // "(11) 98888" e "+55 11 98888-7777" casam como no índice de busca
+    public static Specification<Pedido> telefoneNormalizadoContem(String telefoneNormalizado) {
+        String padrao = "%" + telefoneNormalizado + "%";
+        return (root, query, cb) -> cb.like(root.get("cliente").get("telefoneNormalizado"), padrao);
+    }
+
+    static String escaparLike(String texto) {
+        StringBuilder escapado = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == ESCAPE || c == '%' || c == '_') escapado.append(ESCAPE);
+            escapado.append(c);
+        }
+        return escapado.toString();
+    }
+
+    // Clientes já resolvidos pelo índice de busca (IndiceBuscaCliente)
+    public static Specification<Pedido> clienteEm(Collection<Long> clienteIds) {
+        return (root, query, cb) -> root.get("cliente").get("id").in(clienteIds);
+    }
+
+    // Pedidos já resolvidos pelo índice de produtos (IndiceProdutosPedido)
+    public static Specification<Pedido> idEm(Collection<Long> pedidoIds) {
+        return (root, query, cb) -> root.get("id").in(pedidoIds);
+    }
+
+    public static Specification<Pedido> dataEntregaEntre(LocalDateTime inicio, LocalDateTime fim) {
+        return (root, query, cb) -> cb.between(root.get("dataEntrega"), inicio, fim);
+    }
+
+    // EXISTS em vez de JOIN: não duplica o pedido e não interfere no LIMIT
+    public static Specification<Pedido> contemProduto(Produto produto, int quantidadeMinima) {
+        return (root, query, cb) -> {
+            Subquery<Long> sub = query.subquery(Long.class);
+            Root<PedidoItem> item = sub.from(PedidoItem.class);
+            sub.select(item.get("id"))
+                    .where(
+                            cb.equal(item.get("pedido"), root),
+                            cb.equal(item.get("produto"), produto),
+                            cb.greaterThanOrEqualTo(item.get("quantidade"), Math.max(1, quantidadeMinima))
+                    );
+            return cb.exists(sub);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.pedidos.Repositories;
+
+import com.example.pedidos.Models.ProducaoDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ProducaoDiariaRepository extends JpaRepository<ProducaoDiaria, ProducaoDiaria.Chave>, ProducaoDiariaRepositoryUpsert {
+
+    List<ProducaoDiaria> findByDataBetweenOrderByDataAscProdutoAsc(LocalDate inicio, LocalDate fim);
+}
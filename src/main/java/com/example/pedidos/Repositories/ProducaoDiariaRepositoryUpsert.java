@@ -0,0 +1,12 @@
+package com.example.pedidos.Repositories;
+
+import com.example.pedidos.Models.Produto;
+
+import java.time.LocalDate;
+
+// Soma de deltas na produção diária em um único comando no banco (sem ler antes)
+public interface ProducaoDiariaRepositoryUpsert {
+
+    // Soma quantidade e receita na linha (dia, produto), criando-a se ainda não existe
+    void acumular(LocalDate data, Produto produto, long quantidade, long receitaCentavos);
+}
@@ -0,0 +1,20 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.Models.Cliente;
+
+// Publicado a cada gravação ou exclusão de cliente; os ouvintes rodam depois do commit.
+// telefoneAnterior é o telefone antes da alteração (null em cadastro); cliente == null indica exclusão.
+public record ClienteAlteradoEvent(Long clienteId, String telefoneAnterior, Cliente cliente) {
+
+    public static ClienteAlteradoEvent gravado(Cliente cliente, String telefoneAnterior) {
+        return new ClienteAlteradoEvent(cliente.getId(), telefoneAnterior, cliente);
+    }
+
+    public static ClienteAlteradoEvent excluido(Long clienteId, String telefone) {
+        return new ClienteAlteradoEvent(clienteId, telefone, null);
+    }
+
+    public boolean isExcluido() {
+        return cliente == null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.EstatisticasCacheDTO;
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Telefones;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Clientes já resolvidos, por telefone normalizado, para o cadastro de pedidos não consultar
+// o banco a cada cliente recorrente. Guarda uma cópia imutável dos dados, nunca a entidade.
+// Só entra no cache o que já foi commitado; gravações e exclusões chegam pelo ClienteAlteradoEvent.
+@Component
+public class ClienteCache {
+
+    private record Entrada(Long id, String nome, String telefone, String endereco, LocalDateTime data) {
+
+        static Entrada de(Cliente c) {
+            return new Entrada(c.getId(), c.getNome(), c.getTelefone(), c.getEndereco(), c.getData());
+        }
+
+        Cliente paraCliente() {
+            return new Cliente(id, nome, telefone, endereco, data);
+        }
+    }
+
+    private final long tamanhoMaximo;
+    private final Cache<String, Entrada> clientes;
+
+    public ClienteCache(@Value("${pedidos.clientes.cache.tamanho-maximo:20000}") long tamanhoMaximo,
+                        @Value("${pedidos.clientes.cache.expiracao:PT30M}") Duration expiracao) {
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.clientes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
+    // Cópia desanexada do cliente (com id), ou null se o telefone não está no cache
+    public Cliente buscar(String telefone) {
+        String chave = Telefones.normalizar(telefone);
+        if (chave == null || chave.isEmpty()) return null;
+        Entrada entrada = clientes.getIfPresent(chave);
+        return entrada != null ? entrada.paraCliente() : null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCliente(ClienteAlteradoEvent evento) {
+        String anterior = Telefones.normalizar(evento.telefoneAnterior());
+        if (anterior != null) clientes.invalidate(anterior);
+        if (!evento.isExcluido()) guardar(Entrada.de(evento.cliente()));
+    }
+
+    public EstatisticasCacheDTO estatisticas() {
+        CacheStats stats = clientes.stats();
+        return new EstatisticasCacheDTO(
+                clientes.estimatedSize(),
+                tamanhoMaximo,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        );
+    }
+
+    private void guardar(Entrada entrada) {
+        String chave = Telefones.normalizar(entrada.telefone());
+        if (chave == null || chave.isEmpty()) return;
+        clientes.put(chave, entrada);
+    }
+}
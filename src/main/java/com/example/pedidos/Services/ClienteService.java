@@ -1,29 +1,67 @@
 package com.example.pedidos.Services;
 
+import com.example.pedidos.Config.MetricasConfig;
 import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Telefones;
 import com.example.pedidos.Repositories.ClienteRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
+// Cada método público é cronometrado (MetricasConfig)
 @Service
+@Timed(value = MetricasConfig.TIMER_SERVICO, histogram = true)
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
+    private final ClienteCache clienteCache;
+    private final ApplicationEventPublisher eventos;
 
-    public ClienteService(ClienteRepository clienteRepository) {
+    public ClienteService(ClienteRepository clienteRepository,
+                          ClienteCache clienteCache,
+                          ApplicationEventPublisher eventos) {
         this.clienteRepository = clienteRepository;
+        this.clienteCache = clienteCache;
+        this.eventos = eventos;
     }
 
     public Cliente cadastrarCliente(Cliente cliente) {
-        if (clienteRepository.existsByTelefone(cliente.getTelefone())) {
+        if (clienteRepository.existsByTelefoneNormalizado(cliente.getTelefoneNormalizado())) {
             throw new DataIntegrityViolationException("Já existe um cliente com esse telefone");
         }
-        return clienteRepository.save(cliente);
+        Cliente salvo = clienteRepository.save(cliente);
+        eventos.publishEvent(ClienteAlteradoEvent.gravado(salvo, null));
+        return salvo;
     }
 
+    // Cliente de um pedido: reaproveita o cadastro com o mesmo telefone normalizado (atualizando
+    // nome e endereço) ou cria um novo, num único upsert. Cliente recorrente com os mesmos dados
+    // sai do cache, sem ir ao banco. Deve rodar dentro da transação do pedido.
+    // Devolve só a referência ao id: a linha é carregada se alguém ler os campos (a resposta da API)
+    public Cliente resolverPorTelefone(Cliente dados) {
+        if (dados.getTelefone() == null || Telefones.normalizar(dados.getTelefone()).isEmpty())
+            throw new IllegalArgumentException("Telefone do cliente é obrigatório.");
+
+        Cliente conhecido = clienteCache.buscar(dados.getTelefone());
+        if (conhecido != null && mesmosDados(conhecido, dados)) {
+            return clienteRepository.getReferenceById(conhecido.getId());
+        }
+
+        Long id = clienteRepository.gravarPorTelefone(dados);
+        // Nome, telefone e endereço no banco são os de `dados` (o upsert grava os três); os ouvintes
+        // recebem essa cópia em vez da entidade, que não foi lida
+        Cliente gravado = new Cliente(id, dados.getNome(), dados.getTelefone(), dados.getEndereco(), dados.getData());
+        eventos.publishEvent(ClienteAlteradoEvent.gravado(gravado, dados.getTelefone()));
+        return clienteRepository.getReferenceById(id);
+    }
+
+    @Transactional(readOnly = true)
     public List<Cliente> listarClientes() {
         return clienteRepository.findAll();
     }
@@ -34,25 +72,33 @@ public class ClienteService {
 
     public Cliente atualizarCliente(Long id, Cliente clienteAtualizado) {
         Cliente cliente = clienteRepository.findById(id).orElse(null);
-        if (clienteRepository.existsByTelefoneAndIdNot(clienteAtualizado.getTelefone(), id)
+        if (clienteRepository.existsByTelefoneNormalizadoAndIdNot(clienteAtualizado.getTelefoneNormalizado(), id)
         ) {
             throw new DataIntegrityViolationException("Já existe outro cliente com esse telefone.");
         }
         if (cliente != null) {
+            String telefoneAnterior = cliente.getTelefone();
             cliente.setNome(clienteAtualizado.getNome());
             cliente.setTelefone(clienteAtualizado.getTelefone());
             cliente.setEndereco(clienteAtualizado.getEndereco());
             cliente.setData(clienteAtualizado.getData());
-            return clienteRepository.save(cliente);
+            Cliente salvo = clienteRepository.save(cliente);
+            eventos.publishEvent(ClienteAlteradoEvent.gravado(salvo, telefoneAnterior));
+            return salvo;
         } else {
             throw new RuntimeException("Cliente não encontrado com id: " + id);
         }
     }
 
     public void excluirCliente(Long id) {
-        if (!clienteRepository.existsById(id)) {
-            throw new RuntimeException("Cliente não encontrado com id: " + id);
-        }
-        clienteRepository.deleteById(id);
+        Cliente cliente = clienteRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Cliente não encontrado com id: " + id));
+        clienteRepository.delete(cliente);
+        eventos.publishEvent(ClienteAlteradoEvent.excluido(id, cliente.getTelefone()));
+    }
+
+    private static boolean mesmosDados(Cliente a, Cliente b) {
+        return Objects.equals(a.getNome(), b.getNome())
+                && Objects.equals(a.getEndereco(), b.getEndereco());
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.pedidos.Services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Posição da paginação por chave (dataEntrega DESC, id DESC).
+// O token enviado ao app é opaco: Base64 de "dataEntrega|id", com "-" para pedidos sem data.
+public record CursorPedido(LocalDateTime dataEntrega, Long id) {
+
+    private static final String SEM_DATA = "-";
+
+    public String codificar() {
+        String valor = (dataEntrega != null ? dataEntrega.toString() : SEM_DATA) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorPedido decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = valor.lastIndexOf('|');
+            String data = valor.substring(0, sep);
+            Long id = Long.valueOf(valor.substring(sep + 1));
+            return new CursorPedido(SEM_DATA.equals(data) ? null : LocalDateTime.parse(data), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+    }
+}
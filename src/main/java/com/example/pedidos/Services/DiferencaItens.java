@@ -0,0 +1,53 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Diferença, por produto, entre os itens gravados de um pedido e os recebidos na edição.
+// Produto é um enum pequeno: o EnumMap indexa pelo ordinal e cada lista é percorrida uma vez.
+// Itens iguais nos dois lados não aparecem em nenhuma lista (e não geram SQL).
+record DiferencaItens(List<PedidoItem> inseridos, List<Alteracao> alterados, List<PedidoItem> removidos) {
+
+    // Item gravado que passa a ter outra quantidade
+    record Alteracao(PedidoItem item, int quantidade) {}
+
+    static DiferencaItens calcular(List<PedidoItem> atuais, List<PedidoItem> recebidos) {
+        List<PedidoItem> inseridos = new ArrayList<>();
+        List<Alteracao> alterados = new ArrayList<>();
+        List<PedidoItem> removidos = new ArrayList<>();
+
+        // Recebidos: o último de cada produto vale; quantidade zero significa tirar o produto
+        Map<Produto, PedidoItem> novos = new EnumMap<>(Produto.class);
+        for (PedidoItem item : recebidos) {
+            if (item.getProduto() != null) novos.put(item.getProduto(), item);
+        }
+
+        Map<Produto, PedidoItem> gravados = new EnumMap<>(Produto.class);
+        for (PedidoItem item : atuais) {
+            PedidoItem novo = novos.get(item.getProduto());
+            // Produto fora da edição, zerado ou repetido no pedido gravado
+            if (novo == null || novo.getQuantidade() <= 0 || gravados.putIfAbsent(item.getProduto(), item) != null) {
+                removidos.add(item);
+            } else if (novo.getQuantidade() != item.getQuantidade()) {
+                alterados.add(new Alteracao(item, novo.getQuantidade()));
+            }
+        }
+
+        for (Map.Entry<Produto, PedidoItem> e : novos.entrySet()) {
+            if (e.getValue().getQuantidade() > 0 && !gravados.containsKey(e.getKey())) {
+                inseridos.add(e.getValue());
+            }
+        }
+
+        return new DiferencaItens(inseridos, alterados, removidos);
+    }
+
+    boolean isVazia() {
+        return inseridos.isEmpty() && alterados.isEmpty() && removidos.isEmpty();
+    }
+}
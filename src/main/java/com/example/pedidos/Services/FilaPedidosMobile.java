@@ -0,0 +1,312 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.PedidoDTO;
+import com.example.pedidos.DTO.ResultadoLoteDTO;
+import com.example.pedidos.DTO.SituacaoPedidoMobileDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Recebimento assíncrono do POST /api/pedidos/mobile (pedidos.mobile.assincrono=true).
+// O pedido validado vai para um diário local (NDJSON, com fsync) e a resposta sai na hora com o id
+// de acompanhamento; uma thread grava a fila no banco em lotes pelo PedidoLoteService e anota no
+// diário o resultado de cada pedido. Falha do banco não vira resultado: o pedido fica no lote e é
+// tentado de novo com espera crescente. Na subida, os pedidos do diário sem resultado voltam para a
+// fila. Uma queda entre o commit e a anotação faz o pedido ser gravado de novo (pelo menos uma vez).
+// O diário é esvaziado quando nada fica pendente e, passado pedidos.mobile.diario-tamanho-maximo,
+// reescrito só com os recebimentos pendentes: com pedidos chegando sem parar ele não cresce sem fim.
+@Service
+public class FilaPedidosMobile {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaPedidosMobile.class);
+
+    // Espera entre tentativas quando o banco falha: dobra a cada falha seguida, até o teto
+    private static final Duration ESPERA_INICIAL = Duration.ofSeconds(1);
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(1);
+
+    // Linha do diário: com `pedido` é um recebimento; com `gravado` ou `erro`, o resultado
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record LinhaDiario(String id, LocalDateTime recebidoEm, PedidoDTO pedido, Long gravado, String erro) {}
+
+    private record Entrada(String id, LocalDateTime recebidoEm, PedidoDTO pedido) {}
+
+    private final PedidoService pedidoService;
+    private final PedidoLoteService pedidoLoteService;
+    private final ObjectMapper objectMapper;
+    private final boolean ativa;
+    private final Path arquivo;
+    private final long tamanhoMaximoDiario;
+
+    private final BlockingQueue<Entrada> fila = new LinkedBlockingQueue<>();
+    // Pedidos com recebimento no diário e ainda sem linha de resultado, por id: o que a compactação
+    // reescreve no diário
+    private final Map<String, Entrada> semResultado = new ConcurrentHashMap<>();
+    private final Cache<String, SituacaoPedidoMobileDTO> situacoes;
+    private final Object travaDiario = new Object();
+    private FileChannel diario;
+    // Linhas de resultado no diário desde o último esvaziamento ou compactação (guardado por travaDiario)
+    private int resolvidosNoDiario;
+    private Thread gravador;
+
+    public FilaPedidosMobile(PedidoService pedidoService,
+                             PedidoLoteService pedidoLoteService,
+                             ObjectMapper objectMapper,
+                             @Value("${pedidos.mobile.assincrono:false}") boolean ativa,
+                             @Value("${pedidos.mobile.diario:dados/diario-pedidos-mobile.ndjson}") Path arquivo,
+                             @Value("${pedidos.mobile.diario-tamanho-maximo:16777216}") long tamanhoMaximoDiario,
+                             @Value("${pedidos.mobile.situacao.expiracao:P1D}") Duration expiracaoSituacao) {
+        this.pedidoService = pedidoService;
+        this.pedidoLoteService = pedidoLoteService;
+        this.objectMapper = objectMapper;
+        this.ativa = ativa;
+        this.arquivo = arquivo;
+        this.tamanhoMaximoDiario = tamanhoMaximoDiario;
+        this.situacoes = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(expiracaoSituacao)
+                .build();
+    }
+
+    public boolean isAtiva() {
+        return ativa;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() throws IOException {
+        if (!ativa) return;
+        if (arquivo.getParent() != null) Files.createDirectories(arquivo.getParent());
+        List<Entrada> pendentes = lerPendentes();
+        diario = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        for (Entrada e : pendentes) {
+            situacoes.put(e.id(), SituacaoPedidoMobileDTO.recebido(e.id(), e.recebidoEm()));
+            semResultado.put(e.id(), e);
+            fila.add(e);
+        }
+        if (!pendentes.isEmpty()) log.info("Fila do mobile: {} pedidos do diário voltaram para a fila", pendentes.size());
+
+        gravador = new Thread(this::gravarContinuamente, "fila-pedidos-mobile");
+        gravador.setDaemon(true);
+        gravador.start();
+    }
+
+    @PreDestroy
+    public void encerrar() throws IOException, InterruptedException {
+        if (gravador == null) return;
+        gravador.interrupt();
+        gravador.join(TimeUnit.SECONDS.toMillis(30));
+        synchronized (travaDiario) {
+            diario.close();
+        }
+    }
+
+    // Valida, grava no diário e enfileira; devolve a situação inicial (RECEBIDO) com o id
+    public SituacaoPedidoMobileDTO receber(PedidoDTO dto) {
+        if (dto.telefone == null || dto.telefone.isBlank())
+            throw new IllegalArgumentException("Telefone do cliente é obrigatório.");
+        if (dto.nome == null || dto.nome.isBlank())
+            throw new IllegalArgumentException("Nome do cliente é obrigatório.");
+        if (dto.endereco == null || dto.endereco.isBlank())
+            throw new IllegalArgumentException("Endereço do cliente é obrigatório.");
+        if (dto.itens == null || dto.itens.isEmpty())
+            throw new IllegalArgumentException("Pedido precisa ter ao menos um item.");
+        // Mesma montagem do cadastro: produto inexistente falha aqui, antes de entrar na fila
+        pedidoService.montarPedido(dto);
+
+        Entrada entrada = new Entrada(UUID.randomUUID().toString(), LocalDateTime.now(), dto);
+        SituacaoPedidoMobileDTO situacao = SituacaoPedidoMobileDTO.recebido(entrada.id(), entrada.recebidoEm());
+        // Diário e pendência juntos: o gravador só esvazia o diário sem nenhum pedido pendente
+        synchronized (travaDiario) {
+            anotar(new LinhaDiario(entrada.id(), entrada.recebidoEm(), dto, null, null));
+            semResultado.put(entrada.id(), entrada);
+            situacoes.put(entrada.id(), situacao);
+            fila.add(entrada);
+        }
+        return situacao;
+    }
+
+    public SituacaoPedidoMobileDTO situacao(String id) {
+        return situacoes.getIfPresent(id);
+    }
+
+    public int getPendentes() {
+        return semResultado.size();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // GRAVAÇÃO EM SEGUNDO PLANO
+    // ---------------------------------------------------------------------------------------------
+    private void gravarContinuamente() {
+        // Pedidos sem resultado continuam no lote e entram de novo na próxima tentativa
+        List<Entrada> lote = new ArrayList<>(PedidoLoteService.MAXIMO_PEDIDOS);
+        Duration espera = ESPERA_INICIAL;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (lote.isEmpty()) lote.add(fila.take());
+                fila.drainTo(lote, Math.max(0, PedidoLoteService.MAXIMO_PEDIDOS - lote.size()));
+                gravar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                continue;
+            } catch (RuntimeException e) {
+                log.error("Fila do mobile: falha ao gravar lote de {} pedidos", lote.size(), e);
+            }
+
+            lote.removeIf(e -> !semResultado.containsKey(e.id()));
+            if (lote.isEmpty()) {
+                espera = ESPERA_INICIAL;
+                continue;
+            }
+            log.warn("Fila do mobile: {} pedidos sem resultado, nova tentativa em {} s", lote.size(), espera.toSeconds());
+            try {
+                Thread.sleep(espera.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            espera = espera.multipliedBy(2).compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera.multipliedBy(2);
+        }
+    }
+
+    private void gravar(List<Entrada> lote) {
+        ResultadoLoteDTO resultado = pedidoLoteService.cadastrarLote(lote.stream().map(Entrada::pedido).toList());
+
+        for (int i = 0; i < lote.size(); i++) {
+            Entrada e = lote.get(i);
+            ResultadoLoteDTO.ItemDTO item = resultado.resultados.get(i);
+            // Falha do banco não é resultado do pedido: fica pendente para a próxima tentativa
+            if (Boolean.TRUE.equals(item.temporario())) continue;
+
+            SituacaoPedidoMobileDTO situacao = situacoes.getIfPresent(e.id());
+            if (situacao == null) situacao = SituacaoPedidoMobileDTO.recebido(e.id(), e.recebidoEm());
+            if (item.erro() != null) {
+                anotar(new LinhaDiario(e.id(), null, null, null, item.erro()));
+                situacoes.put(e.id(), situacao.comErro(item.erro()));
+            } else {
+                Long pedidoId = item.id();
+                anotar(new LinhaDiario(e.id(), null, null, pedidoId, null));
+                situacoes.put(e.id(), situacao.gravado(pedidoId));
+            }
+            semResultado.remove(e.id());
+        }
+
+        synchronized (travaDiario) {
+            try {
+                if (semResultado.isEmpty()) {
+                    // Todo recebimento do diário tem resultado: o diário recomeça vazio
+                    diario.truncate(0);
+                    resolvidosNoDiario = 0;
+                } else if (diario.size() > tamanhoMaximoDiario && resolvidosNoDiario >= semResultado.size()) {
+                    // Ao menos metade do diário já está resolvida (recebimento + resultado): compensa reescrever
+                    compactar();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // DIÁRIO
+    // ---------------------------------------------------------------------------------------------
+    private void anotar(LinhaDiario linha) {
+        try {
+            byte[] bytes = linhaJson(linha);
+            synchronized (travaDiario) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) diario.write(buffer);
+                diario.force(false);
+                if (linha.pedido() == null) resolvidosNoDiario++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar no diário de pedidos do mobile", e);
+        }
+    }
+
+    private byte[] linhaJson(LinhaDiario linha) throws IOException {
+        return (objectMapper.writeValueAsString(linha) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Reescreve o diário só com os recebimentos pendentes, em ordem de chegada. O novo diário vai
+    // para um arquivo ao lado, com fsync, e só então substitui o atual: uma queda no meio deixa o
+    // diário antigo inteiro. Chamado com travaDiario, então nenhum recebimento entra no meio.
+    private void compactar() throws IOException {
+        Path novo = arquivo.resolveSibling(arquivo.getFileName() + ".compactando");
+        List<Entrada> pendentes = new ArrayList<>(semResultado.values());
+        pendentes.sort(Comparator.comparing(Entrada::recebidoEm));
+        try (FileChannel canal = FileChannel.open(novo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Entrada e : pendentes) {
+                ByteBuffer buffer = ByteBuffer.wrap(linhaJson(new LinhaDiario(e.id(), e.recebidoEm(), e.pedido(), null, null)));
+                while (buffer.hasRemaining()) canal.write(buffer);
+            }
+            canal.force(false);
+        }
+        long antes = diario.size();
+        diario.close();
+        try {
+            Files.move(novo, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // Falhou a troca: continua anotando no diário antigo, que está inteiro
+            diario = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        resolvidosNoDiario = 0;
+        log.info("Fila do mobile: diário compactado de {} para {} bytes ({} pedidos pendentes)",
+                antes, diario.size(), pendentes.size());
+    }
+
+    private List<Entrada> lerPendentes() throws IOException {
+        if (!Files.exists(arquivo)) return List.of();
+        Map<String, Entrada> recebidos = new LinkedHashMap<>();
+        Set<String> resolvidos = new HashSet<>();
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String texto;
+            while ((texto = leitor.readLine()) != null) {
+                if (texto.isBlank()) continue;
+                LinhaDiario linha;
+                try {
+                    linha = objectMapper.readValue(texto, LinhaDiario.class);
+                } catch (IOException e) {
+                    // Última linha cortada por uma queda no meio da escrita
+                    log.warn("Fila do mobile: linha inválida no diário ignorada");
+                    continue;
+                }
+                if (linha.pedido() != null) recebidos.put(linha.id(), new Entrada(linha.id(), linha.recebidoEm(), linha.pedido()));
+                else resolvidos.add(linha.id());
+            }
+        }
+        recebidos.keySet().removeAll(resolvidos);
+        return new ArrayList<>(recebidos.values());
+    }
+}
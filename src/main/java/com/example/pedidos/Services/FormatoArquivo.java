@@ -0,0 +1,7 @@
+package com.example.pedidos.Services;
+
+// Formatos aceitos na importação e na exportação de pedidos
+public enum FormatoArquivo {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,120 @@
+package com.example.pedidos.Services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Respostas por Idempotency-Key: Caffeine (limitado, com expiração) na frente da tabela
+// chave_idempotencia, que preserva as chaves entre reinícios e entre instâncias.
+// A chave é reservada antes de executar a requisição (INSERT com status nulo): duas tentativas
+// simultâneas com a mesma chave não rodam o cadastro duas vezes. A reserva tem prazo: se a
+// instância cai no meio da requisição, vencido o prazo a próxima tentativa assume a chave (e, se a
+// queda foi entre o commit do pedido e a conclusão, o pedido é gravado de novo).
+@Service
+public class IdempotenciaService {
+
+    // Remove as chaves vencidas do banco a cada tantas reservas
+    private static final int RESERVAS_POR_LIMPEZA = 500;
+
+    public record Resposta(byte[] hashRequisicao, int status, String tipoConteudo, String localizacao, byte[] corpo) {}
+
+    private record Gravada(Resposta resposta, LocalDateTime reservadoEm) {}
+
+    public enum Situacao { NOVA, EM_ANDAMENTO, CONCLUIDA, CONFLITO }
+
+    // Resultado da reserva: com CONCLUIDA vem a resposta original para repetir
+    public record Reserva(Situacao situacao, Resposta resposta) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Resposta> respostas;
+    private final Duration expiracao;
+    private final Duration prazoReserva;
+    private final AtomicInteger reservas = new AtomicInteger();
+
+    public IdempotenciaService(JdbcTemplate jdbcTemplate,
+                               @Value("${pedidos.idempotencia.tamanho-maximo:10000}") long tamanhoMaximo,
+                               @Value("${pedidos.idempotencia.expiracao:PT24H}") Duration expiracao,
+                               @Value("${pedidos.idempotencia.prazo-reserva:PT1M}") Duration prazoReserva) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expiracao = expiracao;
+        this.prazoReserva = prazoReserva;
+        this.respostas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .build();
+    }
+
+    public Reserva reservar(String chave, byte[] hashRequisicao) {
+        Resposta conhecida = respostas.getIfPresent(chave);
+        if (conhecida != null) return concluida(conhecida, hashRequisicao);
+
+        if (reservas.incrementAndGet() % RESERVAS_POR_LIMPEZA == 0) limparVencidas();
+
+        LocalDateTime agora = LocalDateTime.now();
+        try {
+            jdbcTemplate.update("INSERT INTO chave_idempotencia (chave, hash_requisicao, criado_em, reservado_em) VALUES (?, ?, ?, ?)",
+                    chave, hashRequisicao, agora, agora);
+            return new Reserva(Situacao.NOVA, null);
+        } catch (DuplicateKeyException e) {
+            // Já existe no banco: gravada antes de um reinício, por outra instância ou em andamento
+            List<Gravada> gravadas = jdbcTemplate.query(
+                    "SELECT hash_requisicao, status, tipo_conteudo, localizacao, corpo, reservado_em FROM chave_idempotencia " +
+                            "WHERE chave = ? AND criado_em >= ?",
+                    (rs, n) -> new Gravada(
+                            new Resposta(rs.getBytes(1), rs.getObject(2) == null ? -1 : rs.getInt(2),
+                                    rs.getString(3), rs.getString(4), rs.getBytes(5)),
+                            rs.getObject(6, LocalDateTime.class)),
+                    chave, agora.minus(expiracao));
+            if (gravadas.isEmpty()) {
+                // Vencida: a chave pode ser usada de novo
+                jdbcTemplate.update("DELETE FROM chave_idempotencia WHERE chave = ?", chave);
+                return reservar(chave, hashRequisicao);
+            }
+            Resposta gravada = gravadas.get(0).resposta();
+            if (!Arrays.equals(gravada.hashRequisicao(), hashRequisicao)) return new Reserva(Situacao.CONFLITO, null);
+            if (gravada.status() < 0) return assumirSeVencida(chave, gravadas.get(0).reservadoEm(), agora);
+            respostas.put(chave, gravada);
+            return new Reserva(Situacao.CONCLUIDA, gravada);
+        }
+    }
+
+    // Reserva sem conclusão além do prazo (a instância caiu no meio da requisição): esta tentativa
+    // assume a chave. O UPDATE condicional deixa só uma das tentativas simultâneas ficar com ela.
+    private Reserva assumirSeVencida(String chave, LocalDateTime reservadoEm, LocalDateTime agora) {
+        LocalDateTime limite = agora.minus(prazoReserva);
+        if (reservadoEm != null && reservadoEm.isAfter(limite)) return new Reserva(Situacao.EM_ANDAMENTO, null);
+        int assumidas = jdbcTemplate.update("UPDATE chave_idempotencia SET criado_em = ?, reservado_em = ? " +
+                "WHERE chave = ? AND status IS NULL AND (reservado_em IS NULL OR reservado_em < ?)", agora, agora, chave, limite);
+        return new Reserva(assumidas == 1 ? Situacao.NOVA : Situacao.EM_ANDAMENTO, null);
+    }
+
+    public void concluir(String chave, Resposta resposta) {
+        jdbcTemplate.update("UPDATE chave_idempotencia SET status = ?, tipo_conteudo = ?, localizacao = ?, corpo = ? " +
+                        "WHERE chave = ? AND status IS NULL",
+                resposta.status(), resposta.tipoConteudo(), resposta.localizacao(), resposta.corpo(), chave);
+        respostas.put(chave, resposta);
+    }
+
+    // Falha no servidor: libera a chave para a próxima tentativa do aplicativo
+    public void liberar(String chave) {
+        jdbcTemplate.update("DELETE FROM chave_idempotencia WHERE chave = ? AND status IS NULL", chave);
+    }
+
+    private void limparVencidas() {
+        jdbcTemplate.update("DELETE FROM chave_idempotencia WHERE criado_em < ?", LocalDateTime.now().minus(expiracao));
+    }
+
+    private static Reserva concluida(Resposta resposta, byte[] hashRequisicao) {
+        if (!Arrays.equals(resposta.hashRequisicao(), hashRequisicao)) return new Reserva(Situacao.CONFLITO, null);
+        return new Reserva(Situacao.CONCLUIDA, resposta);
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.ClienteBuscaProjecao;
+import com.example.pedidos.Models.Telefones;
+import com.example.pedidos.Repositories.ClienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice em memória de trigramas sobre nome (sem acento, minúsculo) e telefone normalizado dos
+// clientes, para a busca por trecho (/api/pedidos/buscar) que o LIKE '%...%' do banco faz varrendo a tabela.
+// Cada cliente ocupa um slot; a lista de slots de cada trigrama fica ordenada, e a busca cruza as
+// listas dos trigramas do termo e confirma o trecho nos candidatos.
+// Montado na subida da aplicação e mantido pelo ClienteAlteradoEvent; sem ele, a busca volta ao LIKE.
+@Component
+public class IndiceBuscaCliente {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBuscaCliente.class);
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    // Compacta quando os slots mortos (clientes alterados ou excluídos) passam dos vivos
+    private static final int MINIMO_MORTOS_PARA_COMPACTAR = 1024;
+
+    // Lista crescente de slots (os slots novos sempre vêm depois dos existentes)
+    private static final class Slots {
+        int[] valores = new int[4];
+        int tamanho;
+
+        void adicionar(int slot) {
+            if (tamanho > 0 && valores[tamanho - 1] == slot) return;
+            if (tamanho == valores.length) valores = Arrays.copyOf(valores, tamanho * 2);
+            valores[tamanho++] = slot;
+        }
+    }
+
+    private final ClienteRepository clienteRepository;
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // slot -> cliente; nome == null marca slot morto
+    private long[] ids;
+    private String[] nomes;
+    private String[] telefones;
+    private int slots;
+    private int mortos;
+    private final Map<Long, Integer> slotPorId = new HashMap<>();
+    private final Map<Long, Slots> trigramasNome = new HashMap<>();
+    private final Map<Long, Slots> trigramasTelefone = new HashMap<>();
+
+    private volatile boolean pronto;
+
+    // Clientes alterados enquanto a carga inicial roda: a consulta pode já ter passado por eles,
+    // então são relidos quando ela termina. Guardado por `this` junto com `construindo`/`pronto`.
+    private boolean construindo;
+    private final Set<Long> pendentes = new HashSet<>();
+
+    public IndiceBuscaCliente(ClienteRepository clienteRepository) {
+        this.clienteRepository = clienteRepository;
+        limpar(1024);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        synchronized (this) {
+            construindo = true;
+        }
+        List<Long> alteradosDurante = null;
+        trava.writeLock().lock();
+        try {
+            long inicio = System.nanoTime();
+            List<ClienteBuscaProjecao> clientes = clienteRepository.listarParaBusca();
+            limpar(Math.max(1024, clientes.size()));
+            for (ClienteBuscaProjecao c : clientes) {
+                adicionar(c.id(), c.nome(), c.telefoneNormalizado());
+            }
+            log.info("Índice de busca de clientes: {} clientes em {} ms",
+                    clientes.size(), (System.nanoTime() - inicio) / 1_000_000);
+            synchronized (this) {
+                pronto = true;
+                alteradosDurante = new ArrayList<>(pendentes);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Índice de busca de clientes indisponível, a busca usa LIKE no banco: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                construindo = false;
+                pendentes.clear();
+            }
+            trava.writeLock().unlock();
+        }
+        if (alteradosDurante != null) recarregar(alteradosDurante);
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    // Ids dos clientes cujo nome contém `nome` e cujo telefone normalizado contém `telefone` também
+    // normalizado (Telefones.normalizar), como no LIKE de PedidoSpecifications; filtros nulos ou em
+    // branco são ignorados. Devolve null se o índice não está pronto ou se mais de `limite` clientes
+    // casam (termo pouco seletivo: melhor deixar o filtro para o banco).
+    public List<Long> buscar(String nome, String telefone, int limite) {
+        if (!pronto) return null;
+
+        String termoNome = nome != null && !nome.isBlank() ? normalizarTexto(nome) : null;
+        String termoTelefone = telefone != null && !telefone.isBlank() ? Telefones.normalizar(telefone) : null;
+        if (termoTelefone != null && termoTelefone.isEmpty()) return List.of();
+
+        trava.readLock().lock();
+        try {
+            int[] candidatos = null;
+            int quantidade = 0;
+            if (termoNome != null && termoNome.length() >= 3) {
+                Slots s = cruzar(trigramasNome, termoNome);
+                candidatos = s.valores;
+                quantidade = s.tamanho;
+            }
+            if (termoTelefone != null && termoTelefone.length() >= 3) {
+                Slots s = cruzar(trigramasTelefone, termoTelefone);
+                if (candidatos == null) {
+                    candidatos = s.valores;
+                    quantidade = s.tamanho;
+                } else {
+                    Slots ambos = intersecao(candidatos, quantidade, s.valores, s.tamanho);
+                    candidatos = ambos.valores;
+                    quantidade = ambos.tamanho;
+                }
+            }
+
+            // Termos curtos (menos de 3 caracteres) não têm trigrama: confere todos os slots
+            boolean todos = candidatos == null;
+            int total = todos ? slots : quantidade;
+
+            List<Long> encontrados = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                int slot = todos ? i : candidatos[i];
+                if (nomes[slot] == null) continue;
+                if (termoNome != null && !nomes[slot].contains(termoNome)) continue;
+                if (termoTelefone != null && !telefones[slot].contains(termoTelefone)) continue;
+                if (encontrados.size() == limite) return null;
+                encontrados.add(ids[slot]);
+            }
+            return encontrados;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCliente(ClienteAlteradoEvent evento) {
+        if (!pronto && adiado(List.of(evento.clienteId()))) return;
+        trava.writeLock().lock();
+        try {
+            if (evento.isExcluido()) {
+                remover(evento.clienteId());
+            } else {
+                atualizar(evento.clienteId(), evento.cliente().getNome(), evento.cliente().getTelefoneNormalizado());
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // Relê do banco clientes gravados sem passar pelo ClienteService (importação em massa);
+    // os que não existem mais saem do índice
+    public void recarregar(Collection<Long> clienteIds) {
+        if (clienteIds.isEmpty() || (!pronto && adiado(clienteIds))) return;
+        List<ClienteBuscaProjecao> clientes = clienteRepository.listarParaBusca(clienteIds);
+        trava.writeLock().lock();
+        try {
+            Set<Long> ausentes = new HashSet<>(clienteIds);
+            for (ClienteBuscaProjecao c : clientes) {
+                atualizar(c.id(), c.nome(), c.telefoneNormalizado());
+                ausentes.remove(c.id());
+            }
+            for (Long id : ausentes) remover(id);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // Índice ainda não pronto: anota os ids se a carga está em andamento (antes dela, a própria
+    // consulta já os vê) e devolve true. False se a carga terminou nesse meio tempo.
+    private synchronized boolean adiado(Collection<Long> clienteIds) {
+        if (pronto) return false;
+        if (construindo) pendentes.addAll(clienteIds);
+        return true;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // ESTRUTURA (chamados com a trava de escrita)
+    // ---------------------------------------------------------------------------------------------
+    private void atualizar(Long id, String nome, String telefoneNormalizado) {
+        Integer slot = slotPorId.get(id);
+        if (slot != null
+                && nomes[slot].equals(normalizarTexto(nome))
+                && telefones[slot].equals(telefoneNormalizado == null ? "" : telefoneNormalizado)) {
+            return;
+        }
+        remover(id);
+        adicionar(id, nome, telefoneNormalizado);
+        if (mortos > MINIMO_MORTOS_PARA_COMPACTAR && mortos > slots - mortos) compactar();
+    }
+
+    private void adicionar(Long id, String nome, String telefoneNormalizado) {
+        if (slots == ids.length) {
+            int novo = slots * 2;
+            ids = Arrays.copyOf(ids, novo);
+            nomes = Arrays.copyOf(nomes, novo);
+            telefones = Arrays.copyOf(telefones, novo);
+        }
+        int slot = slots++;
+        ids[slot] = id;
+        nomes[slot] = normalizarTexto(nome);
+        telefones[slot] = telefoneNormalizado == null ? "" : telefoneNormalizado;
+        slotPorId.put(id, slot);
+        indexar(trigramasNome, nomes[slot], slot);
+        indexar(trigramasTelefone, telefones[slot], slot);
+    }
+
+    private void remover(Long id) {
+        Integer slot = slotPorId.remove(id);
+        if (slot == null) return;
+        // As listas de trigramas continuam apontando para o slot; a busca ignora slots mortos
+        nomes[slot] = null;
+        telefones[slot] = null;
+        mortos++;
+    }
+
+    private void compactar() {
+        long[] antigosIds = ids;
+        String[] antigosNomes = nomes;
+        String[] antigosTelefones = telefones;
+        int antigos = slots;
+        limpar(Math.max(1024, antigos - mortos));
+        for (int i = 0; i < antigos; i++) {
+            if (antigosNomes[i] == null) continue;
+            int slot = slots++;
+            ids[slot] = antigosIds[i];
+            nomes[slot] = antigosNomes[i];
+            telefones[slot] = antigosTelefones[i];
+            slotPorId.put(ids[slot], slot);
+            indexar(trigramasNome, nomes[slot], slot);
+            indexar(trigramasTelefone, telefones[slot], slot);
+        }
+    }
+
+    private void limpar(int capacidade) {
+        ids = new long[capacidade];
+        nomes = new String[capacidade];
+        telefones = new String[capacidade];
+        slots = 0;
+        mortos = 0;
+        slotPorId.clear();
+        trigramasNome.clear();
+        trigramasTelefone.clear();
+    }
+
+    private static void indexar(Map<Long, Slots> trigramas, String texto, int slot) {
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            trigramas.computeIfAbsent(trigrama(texto, i), k -> new Slots()).adicionar(slot);
+        }
+    }
+
+    // Interseção das listas de todos os trigramas do termo, começando pela menor
+    private static Slots cruzar(Map<Long, Slots> trigramas, String termo) {
+        List<Slots> listas = new ArrayList<>();
+        for (int i = 0; i + 3 <= termo.length(); i++) {
+            Slots s = trigramas.get(trigrama(termo, i));
+            if (s == null) return new Slots();
+            listas.add(s);
+        }
+        listas.sort((a, b) -> Integer.compare(a.tamanho, b.tamanho));
+
+        Slots resultado = listas.get(0);
+        for (int i = 1; i < listas.size() && resultado.tamanho > 0; i++) {
+            Slots s = listas.get(i);
+            resultado = intersecao(resultado.valores, resultado.tamanho, s.valores, s.tamanho);
+        }
+        return resultado;
+    }
+
+    private static Slots intersecao(int[] a, int tamanhoA, int[] b, int tamanhoB) {
+        Slots resultado = new Slots();
+        resultado.valores = new int[Math.max(1, Math.min(tamanhoA, tamanhoB))];
+        int i = 0, j = 0;
+        while (i < tamanhoA && j < tamanhoB) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                resultado.valores[resultado.tamanho++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    private static long trigrama(String texto, int i) {
+        return ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+    }
+
+    // "  José  da Conceição" -> "jose da conceicao"
+    static String normalizarTexto(String texto) {
+        if (texto == null) return "";
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcento.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.PedidoIndiceProjecao;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+import com.example.pedidos.Repositories.PedidoRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice em memória do conteúdo dos pedidos para a busca por produto (/api/pedidos/buscar).
+// Produto é um enum pequeno: cada pedido ocupa um slot com a máscara de bits dos produtos com
+// quantidade > 0, as quantidades por ordinal (vetor único, PRODUTOS posições por slot) e o momento
+// da entrega. "Pedidos com FILE e TEMPERO na semana, pelo menos 2 de cada" vira uma varredura com
+// AND de bits sobre arrays primitivos, sem subconsulta por produto no banco.
+// Montado na subida da aplicação e mantido pelo PedidoAlteradoEvent; sem ele, a busca volta ao EXISTS.
+@Component
+public class IndiceProdutosPedido {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceProdutosPedido.class);
+
+    private static final int PRODUTOS = Produto.values().length;
+
+    // Pedido sem data de entrega: fica fora de qualquer filtro por período
+    private static final long SEM_DATA = Long.MIN_VALUE;
+
+    // Compacta quando os slots mortos (pedidos alterados ou excluídos) passam dos vivos
+    private static final int MINIMO_MORTOS_PARA_COMPACTAR = 1024;
+
+    private final PedidoRepository pedidoRepository;
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // slot -> pedido; id 0 marca slot morto (os ids vêm de sequência a partir de 1)
+    private long[] ids;
+    private long[] mascaras;
+    private int[] quantidades;
+    private long[] entregas;
+    private int slots;
+    private int mortos;
+    private final Map<Long, Integer> slotPorId = new HashMap<>();
+
+    private volatile boolean pronto;
+
+    // Pedidos alterados enquanto a carga inicial roda: a consulta pode já ter passado por eles,
+    // então são relidos quando ela termina. Guardado por `this` junto com `construindo`/`pronto`.
+    private boolean construindo;
+    private final Set<Long> pendentes = new HashSet<>();
+
+    public IndiceProdutosPedido(PedidoRepository pedidoRepository) {
+        this.pedidoRepository = pedidoRepository;
+        limpar(1024);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        synchronized (this) {
+            construindo = true;
+        }
+        List<Long> alteradosDurante = null;
+        trava.writeLock().lock();
+        try {
+            long inicio = System.nanoTime();
+            List<PedidoIndiceProjecao> linhas = pedidoRepository.listarParaIndice();
+            limpar(1024);
+            carregar(linhas);
+            log.info("Índice de produtos por pedido: {} pedidos em {} ms",
+                    slots, (System.nanoTime() - inicio) / 1_000_000);
+            synchronized (this) {
+                pronto = true;
+                alteradosDurante = new ArrayList<>(pendentes);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Índice de produtos por pedido indisponível, a busca usa o banco: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                construindo = false;
+                pendentes.clear();
+            }
+            trava.writeLock().unlock();
+        }
+        if (alteradosDurante != null) recarregar(alteradosDurante);
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    // Ids dos pedidos que têm todos os `produtos` com quantidade >= `quantidadeMinima` (cada um) e
+    // entrega entre `inicio` e `fim` (limites nulos são ignorados). Devolve null se o índice não está
+    // pronto ou se mais de `limite` pedidos casam (filtro pouco seletivo: melhor deixar para o banco).
+    public List<Long> buscar(EnumSet<Produto> produtos, int quantidadeMinima,
+                             LocalDateTime inicio, LocalDateTime fim, int limite) {
+        if (!pronto) return null;
+
+        long alvo = 0;
+        for (Produto p : produtos) alvo |= 1L << p.ordinal();
+        int[] ordinais = produtos.stream().mapToInt(Produto::ordinal).toArray();
+        boolean porQuantidade = quantidadeMinima > 1;
+        boolean porPeriodo = inicio != null || fim != null;
+        long de = inicio != null ? segundos(inicio) : SEM_DATA + 1;
+        long ate = fim != null ? segundos(fim) : Long.MAX_VALUE;
+
+        trava.readLock().lock();
+        try {
+            List<Long> encontrados = new ArrayList<>();
+            for (int slot = 0; slot < slots; slot++) {
+                // Slots mortos têm máscara 0 e só passam se nenhum produto foi pedido
+                if ((mascaras[slot] & alvo) != alvo || ids[slot] == 0) continue;
+                if (porPeriodo && (entregas[slot] < de || entregas[slot] > ate)) continue;
+                if (porQuantidade && !quantidadesAtendem(slot * PRODUTOS, ordinais, quantidadeMinima)) continue;
+                if (encontrados.size() == limite) return null;
+                encontrados.add(ids[slot]);
+            }
+            return encontrados;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPedido(PedidoAlteradoEvent evento) {
+        if (!pronto && adiado(List.of(evento.pedidoId()))) return;
+        Pedido pedido = evento.pedido();
+        // Alterações de um único item (PedidoItemService) chegam com a coleção ainda não carregada
+        if (!evento.isExcluido() && !Hibernate.isInitialized(pedido.getItens())) {
+            recarregar(List.of(evento.pedidoId()));
+            return;
+        }
+        trava.writeLock().lock();
+        try {
+            remover(evento.pedidoId());
+            if (!evento.isExcluido()) {
+                int slot = adicionar(evento.pedidoId(), pedido.getDataEntrega());
+                for (PedidoItem item : pedido.getItens()) {
+                    somar(slot, item.getProduto(), item.getQuantidade());
+                }
+            }
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // Relê do banco o conteúdo dos pedidos informados
+    public void recarregar(Collection<Long> pedidoIds) {
+        if (pedidoIds.isEmpty() || (!pronto && adiado(pedidoIds))) return;
+        List<PedidoIndiceProjecao> linhas = pedidoRepository.listarParaIndice(pedidoIds);
+        trava.writeLock().lock();
+        try {
+            for (Long id : pedidoIds) remover(id);
+            carregar(linhas);
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // Índice ainda não pronto: anota os ids se a carga está em andamento (antes dela, a própria
+    // consulta já os vê) e devolve true. False se a carga terminou nesse meio tempo.
+    private synchronized boolean adiado(Collection<Long> pedidoIds) {
+        if (pronto) return false;
+        if (construindo) pendentes.addAll(pedidoIds);
+        return true;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // ESTRUTURA (chamados com a trava de escrita)
+    // ---------------------------------------------------------------------------------------------
+
+    // Linhas agrupadas por pedido (ordenadas por pedidoId na consulta)
+    private void carregar(List<PedidoIndiceProjecao> linhas) {
+        Long atual = null;
+        int slot = -1;
+        for (PedidoIndiceProjecao l : linhas) {
+            if (!l.pedidoId().equals(atual)) {
+                atual = l.pedidoId();
+                slot = adicionar(atual, l.dataEntrega());
+            }
+            if (l.produto() != null && l.quantidade() != null) somar(slot, l.produto(), l.quantidade());
+        }
+    }
+
+    private int adicionar(Long id, LocalDateTime dataEntrega) {
+        if (slots == ids.length) {
+            int novo = slots * 2;
+            ids = Arrays.copyOf(ids, novo);
+            mascaras = Arrays.copyOf(mascaras, novo);
+            entregas = Arrays.copyOf(entregas, novo);
+            quantidades = Arrays.copyOf(quantidades, novo * PRODUTOS);
+        }
+        int slot = slots++;
+        ids[slot] = id;
+        entregas[slot] = dataEntrega != null ? segundos(dataEntrega) : SEM_DATA;
+        slotPorId.put(id, slot);
+        return slot;
+    }
+
+    // Itens repetidos do mesmo produto somam; o bit só acende com quantidade positiva
+    private void somar(int slot, Produto produto, int quantidade) {
+        if (produto == null) return;
+        int posicao = slot * PRODUTOS + produto.ordinal();
+        quantidades[posicao] += quantidade;
+        if (quantidades[posicao] > 0) mascaras[slot] |= 1L << produto.ordinal();
+        else mascaras[slot] &= ~(1L << produto.ordinal());
+    }
+
+    private void remover(Long id) {
+        Integer slot = slotPorId.remove(id);
+        if (slot == null) return;
+        ids[slot] = 0;
+        mascaras[slot] = 0;
+        mortos++;
+    }
+
+    private void compactarSeNecessario() {
+        if (mortos <= MINIMO_MORTOS_PARA_COMPACTAR || mortos <= slots - mortos) return;
+        int vivos = 0;
+        for (int i = 0; i < slots; i++) {
+            if (ids[i] == 0) continue;
+            ids[vivos] = ids[i];
+            mascaras[vivos] = mascaras[i];
+            entregas[vivos] = entregas[i];
+            System.arraycopy(quantidades, i * PRODUTOS, quantidades, vivos * PRODUTOS, PRODUTOS);
+            slotPorId.put(ids[vivos], vivos);
+            vivos++;
+        }
+        Arrays.fill(quantidades, vivos * PRODUTOS, slots * PRODUTOS, 0);
+        Arrays.fill(mascaras, vivos, slots, 0);
+        slots = vivos;
+        mortos = 0;
+    }
+
+    private void limpar(int capacidade) {
+        ids = new long[capacidade];
+        mascaras = new long[capacidade];
+        entregas = new long[capacidade];
+        quantidades = new int[capacidade * PRODUTOS];
+        slots = 0;
+        mortos = 0;
+        slotPorId.clear();
+    }
+
+    private boolean quantidadesAtendem(int base, int[] ordinais, int quantidadeMinima) {
+        for (int ordinal : ordinais) {
+            if (quantidades[base + ordinal] < quantidadeMinima) return false;
+        }
+        return true;
+    }
+
+    // Mesma escala nos dois lados da comparação; o fuso não importa
+    private static long segundos(LocalDateTime data) {
+        return data.toEpochSecond(ZoneOffset.UTC);
+    }
+}
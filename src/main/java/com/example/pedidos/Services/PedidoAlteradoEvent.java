@@ -0,0 +1,20 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.Models.Pedido;
+
+// Publicado a cada gravação de pedido; os ouvintes rodam depois do commit.
+// pedido == null indica que o pedido foi excluído.
+public record PedidoAlteradoEvent(Long pedidoId, Pedido pedido) {
+
+    public static PedidoAlteradoEvent gravado(Pedido pedido) {
+        return new PedidoAlteradoEvent(pedido.getId(), pedido);
+    }
+
+    public static PedidoAlteradoEvent excluido(Long pedidoId) {
+        return new PedidoAlteradoEvent(pedidoId, null);
+    }
+
+    public boolean isExcluido() {
+        return pedido == null;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.PedidoExportacaoProjecao;
+import com.example.pedidos.Models.Centavos;
+import com.example.pedidos.Repositories.PedidoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Exportação completa de pedidos com itens para a contabilidade (GET /api/pedidos/export).
+// As linhas vêm do banco em streaming (PedidoRepositoryExportacao) e são escritas direto na resposta,
+// um pedido por vez: só o pedido corrente fica em memória, qualquer que seja o tamanho do histórico.
+// A leitura é por projeção, então nenhuma entidade se acumula no contexto de persistência.
+@Service
+public class PedidoExportacaoService {
+
+    private final PedidoRepository pedidoRepository;
+    private final ObjectMapper objectMapper;
+
+    public PedidoExportacaoService(PedidoRepository pedidoRepository, ObjectMapper objectMapper) {
+        this.pedidoRepository = pedidoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportar(FormatoArquivo formato, OutputStream saida) throws IOException {
+        try (Stream<PedidoExportacaoProjecao> linhas = pedidoRepository.streamExportacao()) {
+            if (formato == FormatoArquivo.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+                writer.write("id;nome;telefone;endereco;dataEntrega;taxaEntrega;valorTotal;itens\n");
+                for (Iterator<List<PedidoExportacaoProjecao>> it = porPedido(linhas.iterator()); it.hasNext(); ) {
+                    escreverCsv(writer, it.next());
+                }
+                writer.flush();
+            } else {
+                JsonGenerator json = objectMapper.getFactory().createGenerator(saida);
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.setRootValueSeparator(null);
+                for (Iterator<List<PedidoExportacaoProjecao>> it = porPedido(linhas.iterator()); it.hasNext(); ) {
+                    escreverNdjson(json, it.next());
+                }
+                json.flush();
+            }
+        }
+    }
+
+    // Agrupa as linhas consecutivas do mesmo pedido (a consulta já vem ordenada por pedido)
+    private static Iterator<List<PedidoExportacaoProjecao>> porPedido(Iterator<PedidoExportacaoProjecao> linhas) {
+        return new Iterator<>() {
+            private PedidoExportacaoProjecao proxima = linhas.hasNext() ? linhas.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return proxima != null;
+            }
+
+            @Override
+            public List<PedidoExportacaoProjecao> next() {
+                List<PedidoExportacaoProjecao> pedido = new ArrayList<>();
+                Long id = proxima.pedidoId();
+                while (proxima != null && proxima.pedidoId().equals(id)) {
+                    pedido.add(proxima);
+                    proxima = linhas.hasNext() ? linhas.next() : null;
+                }
+                return pedido;
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // CSV: um pedido por linha, mesmo layout aceito por POST /api/pedidos/importar
+    // ---------------------------------------------------------------------------------------------
+    private static void escreverCsv(Writer w, List<PedidoExportacaoProjecao> linhas) throws IOException {
+        PedidoExportacaoProjecao p = linhas.get(0);
+
+        StringBuilder itens = new StringBuilder();
+        for (PedidoExportacaoProjecao l : linhas) {
+            if (l.produto() == null) continue;
+            if (itens.length() > 0) itens.append('|');
+            itens.append(l.produto().name()).append(':').append(l.quantidade());
+        }
+
+        w.write(String.valueOf(p.pedidoId()));
+        w.write(';');
+        w.write(campoCsv(p.nome()));
+        w.write(';');
+        w.write(campoCsv(p.telefone()));
+        w.write(';');
+        w.write(campoCsv(p.endereco()));
+        w.write(';');
+        w.write(data(p.dataEntrega()));
+        w.write(';');
+        // Vírgula decimal, como nas planilhas em pt-BR
+        w.write(Centavos.formatar(p.taxaEntregaCentavos(), ','));
+        w.write(';');
+        w.write(Centavos.formatar(p.valorTotalCentavos(), ','));
+        w.write(';');
+        w.write(itens.toString());
+        w.write('\n');
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor == null) return "";
+        if (valor.indexOf(';') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0) return valor;
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String data(LocalDateTime valor) {
+        return valor == null ? "" : valor.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // NDJSON: um objeto por linha, compatível com PedidoDTO
+    // ---------------------------------------------------------------------------------------------
+    private static void escreverNdjson(JsonGenerator json, List<PedidoExportacaoProjecao> linhas) throws IOException {
+        PedidoExportacaoProjecao p = linhas.get(0);
+
+        json.writeStartObject();
+        json.writeNumberField("id", p.pedidoId());
+        json.writeStringField("nome", p.nome());
+        json.writeStringField("telefone", p.telefone());
+        json.writeStringField("endereco", p.endereco());
+        if (p.dataEntrega() != null) json.writeStringField("dataEntrega", data(p.dataEntrega()));
+        else json.writeNullField("dataEntrega");
+        escreverReais(json, "taxaEntrega", p.taxaEntregaCentavos());
+        escreverReais(json, "valorTotal", p.valorTotalCentavos());
+
+        json.writeArrayFieldStart("itens");
+        for (PedidoExportacaoProjecao l : linhas) {
+            if (l.produto() == null) continue;
+            json.writeStartObject();
+            json.writeStringField("produto", l.produto().name());
+            json.writeNumberField("quantidade", l.quantidade());
+            escreverReais(json, "precoUnitario", l.precoUnitarioCentavos());
+            escreverReais(json, "subtotal", l.subtotalCentavos());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void escreverReais(JsonGenerator json, String campo, Long centavos) throws IOException {
+        if (centavos != null) json.writeNumberField(campo, Centavos.emReais(centavos));
+        else json.writeNullField(campo);
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.PedidoDTO;
+import com.example.pedidos.DTO.ResultadoImportacaoDTO;
+import com.example.pedidos.Models.Centavos;
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Repositories.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Importação de pedidos históricos (planilhas / sistemas antigos) em streaming.
+// O arquivo é lido linha a linha e gravado em blocos de tamanho fixo, então a memória usada
+// não depende do tamanho do arquivo. Linha com erro é registrada e a importação continua.
+//
+// CSV: primeira linha é o cabeçalho; separador ';' ou ',' (detectado pelo cabeçalho).
+//   nome;telefone;endereco;dataEntrega;taxaEntrega;itens
+//   Maria;11999990000;Rua A, 10;2024-12-24T10:00;5,00;FILE:2|TEMPERO:1
+// NDJSON: um PedidoDTO em JSON por linha.
+@Service
+public class PedidoImportacaoService {
+
+    public static final int TAMANHO_BLOCO = 200;
+    public static final int MAXIMO_ERROS_LISTADOS = 1000;
+
+    // Clientes já resolvidos na importação (telefone normalizado -> id); limitado para não crescer sem fim
+    private static final int MAXIMO_CLIENTES_EM_CACHE = 50_000;
+
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATA_HORA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final PedidoService pedidoService;
+    private final ClienteRepository clienteRepository;
+    private final IndiceBuscaCliente indiceBuscaCliente;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public PedidoImportacaoService(PedidoService pedidoService,
+                                   ClienteRepository clienteRepository,
+                                   IndiceBuscaCliente indiceBuscaCliente,
+                                   TransactionTemplate transactionTemplate,
+                                   EntityManager entityManager,
+                                   ObjectMapper objectMapper,
+                                   @Value("${pedidos.alteracoes.janela:PT1M}") Duration janelaAlteracoes) {
+        this.pedidoService = pedidoService;
+        this.clienteRepository = clienteRepository;
+        this.indiceBuscaCliente = indiceBuscaCliente;
+        // Como no lote: o bloco não fica aberto mais que a janela do feed de alterações
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setTimeout((int) Math.max(1, janelaAlteracoes.toSeconds() / 2));
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    public ResultadoImportacaoDTO importar(InputStream entrada, FormatoArquivo formato) throws IOException {
+        ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+        Map<String, Long> clientes = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> maisAntigo) {
+                return size() > MAXIMO_CLIENTES_EM_CACHE;
+            }
+        };
+
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        List<LinhaPedido> bloco = new ArrayList<>(TAMANHO_BLOCO);
+        String[] cabecalho = null;
+        char separador = ',';
+        long numero = 0;
+        String linha;
+
+        while ((linha = leitor.readLine()) != null) {
+            numero++;
+            if (linha.isBlank()) continue;
+
+            if (formato == FormatoArquivo.CSV && cabecalho == null) {
+                separador = linha.indexOf(';') >= 0 ? ';' : ',';
+                cabecalho = dividirCsv(linha, separador).toArray(String[]::new);
+                continue;
+            }
+
+            resultado.linhas++;
+            try {
+                PedidoDTO dto = formato == FormatoArquivo.CSV
+                        ? lerCsv(cabecalho, dividirCsv(linha, separador), separador)
+                        : objectMapper.readValue(linha, PedidoDTO.class);
+                bloco.add(new LinhaPedido(numero, dto, pedidoService.montarPedido(dto)));
+            } catch (Exception e) {
+                registrarErro(resultado, numero, e);
+            }
+
+            if (bloco.size() == TAMANHO_BLOCO) {
+                gravarBloco(bloco, clientes, resultado);
+                bloco.clear();
+            }
+        }
+
+        if (!bloco.isEmpty())
+            gravarBloco(bloco, clientes, resultado);
+
+        return resultado;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // GRAVAÇÃO EM BLOCOS
+    // ---------------------------------------------------------------------------------------------
+    private void gravarBloco(List<LinhaPedido> bloco, Map<String, Long> clientes, ResultadoImportacaoDTO resultado) {
+        // Clientes criados no bloco só entram no cache depois do commit
+        Map<String, Long> novos = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (LinhaPedido l : bloco) {
+                    gravar(l.pedido(), clientes, novos);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            clientes.putAll(novos);
+            indiceBuscaCliente.recarregar(novos.values());
+            resultado.importados += bloco.size();
+        } catch (RuntimeException e) {
+            // O bloco voltou inteiro: regrava linha a linha para apontar só as que falham
+            for (LinhaPedido l : bloco) {
+                gravarLinha(l, clientes, resultado);
+            }
+        }
+    }
+
+    private void gravarLinha(LinhaPedido l, Map<String, Long> clientes, ResultadoImportacaoDTO resultado) {
+        Map<String, Long> novos = new HashMap<>();
+        try {
+            Pedido pedido = pedidoService.montarPedido(l.dto());
+            transactionTemplate.executeWithoutResult(status -> {
+                gravar(pedido, clientes, novos);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            clientes.putAll(novos);
+            indiceBuscaCliente.recarregar(novos.values());
+            resultado.importados++;
+        } catch (RuntimeException e) {
+            registrarErro(resultado, l.numero(), e);
+        }
+    }
+
+    private void gravar(Pedido pedido, Map<String, Long> clientes, Map<String, Long> novos) {
+        Cliente dados = pedido.getCliente();
+        if (dados.getTelefone() == null || dados.getTelefone().isBlank())
+            throw new IllegalArgumentException("Telefone do cliente é obrigatório.");
+
+        // Dados históricos não sobrescrevem o cadastro atual do cliente: só resolve o id
+        String chave = dados.getTelefoneNormalizado();
+        Long clienteId = clientes.get(chave);
+        if (clienteId == null) clienteId = novos.get(chave);
+        if (clienteId == null) {
+            clienteId = clienteRepository.inserirSeAusente(dados);
+            novos.put(chave, clienteId);
+        }
+
+        pedido.setCliente(entityManager.getReference(Cliente.class, clienteId));
+        pedidoService.gravarNovoPedido(pedido);
+    }
+
+    private static void registrarErro(ResultadoImportacaoDTO resultado, long linha, Exception e) {
+        if (resultado.erros.size() < MAXIMO_ERROS_LISTADOS) {
+            String mensagem = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            resultado.erros.add(new ResultadoImportacaoDTO.ErroDTO(linha, mensagem));
+        } else {
+            resultado.errosOmitidos++;
+        }
+    }
+
+    private record LinhaPedido(long numero, PedidoDTO dto, Pedido pedido) {}
+
+    // ---------------------------------------------------------------------------------------------
+    // LEITURA DO CSV
+    // ---------------------------------------------------------------------------------------------
+    private static PedidoDTO lerCsv(String[] cabecalho, List<String> campos, char separador) {
+        Map<String, String> valores = new HashMap<>();
+        for (int i = 0; i < cabecalho.length && i < campos.size(); i++) {
+            valores.put(cabecalho[i].trim().toLowerCase(), campos.get(i).trim());
+        }
+
+        PedidoDTO dto = new PedidoDTO();
+        dto.nome = valores.get("nome");
+        dto.telefone = valores.get("telefone");
+        dto.endereco = valores.get("endereco");
+        dto.dataEntrega = lerData(valores.get("dataentrega"));
+
+        String taxa = valores.get("taxaentrega");
+        if (taxa != null && !taxa.isEmpty()) {
+            // Planilhas em pt-BR (separador ';') usam vírgula decimal
+            dto.taxaEntregaCentavos = Centavos.deReais(separador == ';' ? taxa.replace(".", "").replace(',', '.') : taxa);
+        }
+
+        dto.itens = new ArrayList<>();
+        String itens = valores.get("itens");
+        if (itens != null && !itens.isEmpty()) {
+            for (String parte : itens.split("\\|")) {
+                String[] produtoQuantidade = parte.split(":");
+                if (produtoQuantidade.length != 2)
+                    throw new IllegalArgumentException("Item inválido: '" + parte + "' (esperado PRODUTO:QUANTIDADE)");
+                PedidoDTO.ItemDTO item = new PedidoDTO.ItemDTO();
+                item.produto = produtoQuantidade[0].trim().toUpperCase();
+                item.quantidade = Integer.parseInt(produtoQuantidade[1].trim());
+                dto.itens.add(item);
+            }
+        }
+        return dto;
+    }
+
+    private static LocalDateTime lerData(String valor) {
+        if (valor == null || valor.isEmpty()) return null;
+        if (valor.contains("/")) {
+            return valor.length() > 10
+                    ? LocalDateTime.parse(valor, DATA_HORA_BR)
+                    : LocalDate.parse(valor, DATA_BR).atStartOfDay();
+        }
+        return valor.length() > 10 ? LocalDateTime.parse(valor) : LocalDate.parse(valor).atStartOfDay();
+    }
+
+    // Divide uma linha CSV respeitando campos entre aspas ("" dentro das aspas vira ")
+    static List<String> dividirCsv(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+}
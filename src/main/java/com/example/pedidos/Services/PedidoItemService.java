@@ -1,22 +1,42 @@
 package com.example.pedidos.Services;
 
+import com.example.pedidos.Models.Pedido;
 import com.example.pedidos.Models.PedidoItem;
 import com.example.pedidos.Repositories.PedidoItemRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public class PedidoItemService {
 
     private final PedidoItemRepository pedidoItemRepository;
+    private final EntityManager entityManager;
+    private final ProducaoService producaoService;
+    private final ApplicationEventPublisher eventos;
 
-    public PedidoItemService(PedidoItemRepository pedidoItemRepository) {
+    public PedidoItemService(PedidoItemRepository pedidoItemRepository,
+                             EntityManager entityManager,
+                             ProducaoService producaoService,
+                             ApplicationEventPublisher eventos) {
         this.pedidoItemRepository = pedidoItemRepository;
+        this.entityManager = entityManager;
+        this.producaoService = producaoService;
+        this.eventos = eventos;
     }
 
+    @Transactional
     public PedidoItem cadastrarPedidoItem(PedidoItem pedidoItem) {
-        return pedidoItemRepository.save(pedidoItem);
+        pedidoItem.setPedido(resolverPedido(pedidoItem.getPedido(), null));
+        pedidoItem.calcularSubtotal();
+        PedidoItem salvo = pedidoItemRepository.save(pedidoItem);
+        registrarProducao(salvo, +1);
+        registrarAlteracao(salvo.getPedido(), salvo.getSubtotalCentavos());
+        return salvo;
     }
 
     public List<PedidoItem> listarPedidoItens() {
@@ -27,19 +47,75 @@ public class PedidoItemService {
         return pedidoItemRepository.findById(id).orElse(null);
     }
 
+    @Transactional
     public PedidoItem atualizarpedidoItem(Long id, PedidoItem contactAtualizado) {
         PedidoItem pedidoItem = pedidoItemRepository.findById(id).orElse(null);
         if (pedidoItem != null) {
+            Pedido pedidoAnterior = pedidoItem.getPedido();
+            long subtotalAnterior = pedidoItem.getSubtotalCentavos();
+            registrarProducao(pedidoItem, -1);
+
+            Pedido pedido = resolverPedido(contactAtualizado.getPedido(), pedidoAnterior);
             pedidoItem.setProduto(contactAtualizado.getProduto());
             pedidoItem.setQuantidade(contactAtualizado.getQuantidade());
-            pedidoItem.setPedido(contactAtualizado.getPedido());
-            return pedidoItemRepository.save(pedidoItem);
+            pedidoItem.setPedido(pedido);
+            pedidoItem.calcularSubtotal();
+            PedidoItem salvo = pedidoItemRepository.saveAndFlush(pedidoItem);
+            registrarProducao(salvo, +1);
+
+            // Item trocado de pedido: sai do total de um e entra no do outro
+            if (mesmoPedido(pedidoAnterior, pedido)) {
+                registrarAlteracao(pedido, salvo.getSubtotalCentavos() - subtotalAnterior);
+            } else {
+                registrarAlteracao(pedidoAnterior, -subtotalAnterior);
+                registrarAlteracao(pedido, salvo.getSubtotalCentavos());
+            }
+            return salvo;
         } else {
             throw new RuntimeException("Itens do pedido não encontrados com id: " + id);
         }
     }
 
+    @Transactional
     public void excluirPedidoItem(Long id) {
-        pedidoItemRepository.deleteById(id);
+        pedidoItemRepository.findById(id).ifPresent(item -> {
+            registrarProducao(item, -1);
+            pedidoItemRepository.delete(item);
+            registrarAlteracao(item.getPedido(), -item.getSubtotalCentavos());
+        });
+    }
+
+    // O pedido do item é @JsonBackReference: no corpo de /api/itens ele chega sempre nulo, e aí o
+    // item continua no pedido em que já está. Vindo informado (chamada interna), usa a instância
+    // gerenciada, que tem a data de entrega da produção diária
+    private Pedido resolverPedido(Pedido informado, Pedido atual) {
+        if (informado == null) return atual;
+        if (informado.getId() == null) return informado;
+        Pedido gerenciado = entityManager.find(Pedido.class, informado.getId());
+        if (gerenciado == null)
+            throw new IllegalArgumentException("Pedido não encontrado com id: " + informado.getId());
+        return gerenciado;
+    }
+
+    private static boolean mesmoPedido(Pedido a, Pedido b) {
+        if (a == null || b == null) return a == b;
+        return a == b || (a.getId() != null && a.getId().equals(b.getId()));
+    }
+
+    private void registrarProducao(PedidoItem item, int sinal) {
+        if (item.getPedido() != null)
+            producaoService.registrarItem(item.getPedido().getDataEntrega(), item, sinal);
+    }
+
+    // O total do pedido é mantido por diferença (como na edição do pedido): soma a variação do
+    // subtotal do item e marca o pedido como alterado, o que grava nova versão (invalida o ETag)
+    // e o põe no feed de alterações
+    private void registrarAlteracao(Pedido pedido, long variacaoCentavos) {
+        if (pedido == null || pedido.getId() == null) return;
+        Pedido gerenciado = entityManager.find(Pedido.class, pedido.getId());
+        if (gerenciado == null) return;
+        gerenciado.setValorTotalCentavos(gerenciado.getValorTotalCentavos() + variacaoCentavos);
+        gerenciado.setAtualizadoEm(LocalDateTime.now());
+        eventos.publishEvent(PedidoAlteradoEvent.gravado(gerenciado));
     }
 }
@@ -0,0 +1,161 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.PedidoDTO;
+import com.example.pedidos.DTO.ResultadoLoteDTO;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Gravação de muitos pedidos de uma vez (POST /api/pedidos/lote).
+// Cada bloco roda numa transação própria: os INSERTs de pedidos e itens saem em lote JDBC
+// e o contexto de persistência é limpo entre blocos para a memória não crescer com o lote.
+@Service
+public class PedidoLoteService {
+
+    public static final int TAMANHO_BLOCO = 100;
+    public static final int MAXIMO_PEDIDOS = 2000;
+
+    private final PedidoService pedidoService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    public PedidoLoteService(PedidoService pedidoService,
+                             TransactionTemplate transactionTemplate,
+                             EntityManager entityManager,
+                             Validator validator,
+                             @Value("${pedidos.alteracoes.janela:PT1M}") Duration janelaAlteracoes) {
+        this.pedidoService = pedidoService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        // Um bloco não pode ficar aberto mais que a janela do feed de alterações (PedidoService):
+        // estourado o tempo, o bloco volta e os pedidos são gravados um a um
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setTimeout((int) Math.max(1, janelaAlteracoes.toSeconds() / 2));
+    }
+
+    public ResultadoLoteDTO cadastrarLote(List<PedidoDTO> dtos) {
+        if (dtos.size() > MAXIMO_PEDIDOS)
+            throw new IllegalArgumentException("Lote excede o máximo de " + MAXIMO_PEDIDOS + " pedidos.");
+
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO(dtos.size());
+
+        for (int inicio = 0; inicio < dtos.size(); inicio += TAMANHO_BLOCO) {
+            List<PedidoDTO> bloco = dtos.subList(inicio, Math.min(inicio + TAMANHO_BLOCO, dtos.size()));
+            gravarBloco(bloco, inicio, resultado);
+        }
+
+        return resultado;
+    }
+
+    private void gravarBloco(List<PedidoDTO> bloco, int deslocamento, ResultadoLoteDTO resultado) {
+        // Monta e valida fora da transação: erro de conversão (produto inválido etc.) ou dado inválido
+        // afeta só aquele pedido, sem derrubar o bloco
+        List<Pedido> pedidos = new ArrayList<>();
+        List<Integer> posicoes = new ArrayList<>();
+        for (int i = 0; i < bloco.size(); i++) {
+            if (bloco.get(i) == null) {
+                resultado.erro(deslocamento + i, "Pedido vazio.", false);
+                continue;
+            }
+            try {
+                Pedido pedido = pedidoService.montarPedido(bloco.get(i));
+                String invalido = violacoes(pedido);
+                if (invalido != null) {
+                    resultado.erro(deslocamento + i, invalido, false);
+                    continue;
+                }
+                pedidos.add(pedido);
+                posicoes.add(deslocamento + i);
+            } catch (RuntimeException e) {
+                resultado.erro(deslocamento + i, mensagem(e), false);
+            }
+        }
+        if (pedidos.isEmpty()) return;
+
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> gravados = new ArrayList<>();
+                for (Pedido pedido : pedidos) {
+                    gravados.add(pedidoService.cadastrarPedido(pedido).getId());
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return gravados;
+            });
+            for (int i = 0; i < ids.size(); i++) resultado.gravado(posicoes.get(i), ids.get(i));
+        } catch (RuntimeException e) {
+            // O bloco inteiro voltou: regrava um a um para isolar o(s) pedido(s) com problema
+            for (int i = 0; i < pedidos.size(); i++) {
+                gravarIndividual(bloco.get(posicoes.get(i) - deslocamento), posicoes.get(i), resultado);
+            }
+        }
+    }
+
+    private void gravarIndividual(PedidoDTO dto, int posicao, ResultadoLoteDTO resultado) {
+        try {
+            Long id = transactionTemplate.execute(status ->
+                    pedidoService.cadastrarPedido(pedidoService.montarPedido(dto)).getId());
+            resultado.gravado(posicao, id);
+        } catch (RuntimeException e) {
+            resultado.erro(posicao, mensagem(e), falhaTemporaria(e));
+        }
+    }
+
+    // As mesmas restrições do POST /api/pedidos (@Valid no pedido; cliente e itens validados ao gravar),
+    // num texto só; null se o pedido é válido
+    private String violacoes(Pedido pedido) {
+        Set<String> mensagens = new TreeSet<>();
+        adicionar(mensagens, validator.validate(pedido));
+        if (pedido.getCliente() != null) {
+            adicionar(mensagens, validator.validate(pedido.getCliente()));
+            String telefone = pedido.getCliente().getTelefoneNormalizado();
+            if (mensagens.isEmpty() && (telefone == null || telefone.isEmpty()))
+                mensagens.add("Telefone do cliente é obrigatório.");
+        }
+        for (PedidoItem item : pedido.getItens()) {
+            adicionar(mensagens, validator.validate(item));
+        }
+        return mensagens.isEmpty() ? null : String.join("; ", mensagens);
+    }
+
+    private static void adicionar(Set<String> mensagens, Set<? extends ConstraintViolation<?>> violacoes) {
+        for (ConstraintViolation<?> violacao : violacoes) mensagens.add(violacao.getMessage());
+    }
+
+    // Banco fora do ar, sem conexão ou timeout: o pedido em si não tem problema e pode ser repetido
+    static boolean falhaTemporaria(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof TransientDataAccessException
+                    || causa instanceof RecoverableDataAccessException
+                    || causa instanceof DataAccessResourceFailureException
+                    || causa instanceof CannotCreateTransactionException
+                    || causa instanceof SQLTransientException
+                    || causa instanceof SQLRecoverableException)
+                return true;
+            if (causa.getCause() == causa) break;
+        }
+        return false;
+    }
+
+    private static String mensagem(RuntimeException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
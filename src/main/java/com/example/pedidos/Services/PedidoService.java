@@ -1,32 +1,104 @@
 package com.example.pedidos.Services;
 
+import com.example.pedidos.Config.MetricasConfig;
+import com.example.pedidos.DTO.AlteracoesPedidosDTO;
+import com.example.pedidos.DTO.PaginaPedidosDTO;
 import com.example.pedidos.DTO.PedidoComItensDTO;
+import com.example.pedidos.DTO.PedidoDTO;
+import com.example.pedidos.DTO.PedidoItemProjecao;
+import com.example.pedidos.DTO.PedidoDetalheProjecao;
+import com.example.pedidos.DTO.PedidoRespostaDTO;
 import com.example.pedidos.DTO.PedidoResumoDTO;
+import com.example.pedidos.DTO.ResultadoBuscaDTO;
+import com.example.pedidos.DTO.VersaoPedidoProjecao;
 import com.example.pedidos.Models.Cliente;
 import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoExcluido;
 import com.example.pedidos.Models.PedidoItem;
 import com.example.pedidos.Models.Produto;
+import com.example.pedidos.Models.Telefones;
 import com.example.pedidos.Repositories.ClienteRepository;
+import com.example.pedidos.Repositories.PedidoExcluidoRepository;
 import com.example.pedidos.Repositories.PedidoRepository;
+import com.example.pedidos.Repositories.PedidoSpecifications;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+// Cada método público é cronometrado (MetricasConfig)
 @Service
+@Timed(value = MetricasConfig.TIMER_SERVICO, histogram = true)
 public class PedidoService {
 
+    // Teto de linhas devolvidas pela busca com filtros (acima dele a resposta sai marcada como truncada)
+    public static final int LIMITE_BUSCA = 500;
+    // Acima disso o filtro por nome/telefone vai como LIKE para o banco em vez de uma lista de ids
+    private static final int MAXIMO_CLIENTES_FILTRO = 1000;
+    // Acima disso o filtro por produto vai para o banco em vez de um IN com os ids do índice
+    private static final int MAXIMO_PEDIDOS_FILTRO = 2000;
+    // Teto do tamanho de página da listagem (GET /api/pedidos)
+    public static final int TAMANHO_MAXIMO_PAGINA = 200;
+    // Acima disso o feed de alterações manda o app recarregar a lista inteira
+    private static final int LIMITE_ALTERACOES = 500;
+
+    private static final Sort ORDEM_BUSCA = Sort.by(Sort.Order.desc("dataEntrega"), Sort.Order.desc("id"));
+
     private final PedidoRepository pedidoRepository;
     private final ClienteRepository clienteRepository;
+    private final ClienteService clienteService;
+    private final IndiceBuscaCliente indiceBuscaCliente;
+    private final IndiceProdutosPedido indiceProdutosPedido;
+    private final ProducaoService producaoService;
+    private final PedidoExcluidoRepository pedidoExcluidoRepository;
+    private final VersaoPedidoCache versaoPedidoCache;
+    private final ApplicationEventPublisher eventos;
+    // Por quanto tempo as exclusões ficam registradas; token mais antigo que isso pede recarga completa
+    private final Duration retencaoAlteracoes;
+    // Recuo aplicado ao token: transações que marcaram atualizado_em antes do instante do token mas
+    // só confirmaram depois da consulta anterior ainda entram (o app recebe alguns pedidos repetidos).
+    // Escrita que leve mais que isso entre marcar e confirmar se perde do feed; as transações longas
+    // (blocos de lote e importação) têm timeout abaixo deste valor.
+    private final Duration janelaAlteracoes;
 
     @Autowired
     public PedidoService(PedidoRepository pedidoRepository,
-                         ClienteRepository clienteRepository) {
+                         ClienteRepository clienteRepository,
+                         ClienteService clienteService,
+                         IndiceBuscaCliente indiceBuscaCliente,
+                         IndiceProdutosPedido indiceProdutosPedido,
+                         ProducaoService producaoService,
+                         PedidoExcluidoRepository pedidoExcluidoRepository,
+                         VersaoPedidoCache versaoPedidoCache,
+                         ApplicationEventPublisher eventos,
+                         @Value("${pedidos.alteracoes.retencao:P30D}") Duration retencaoAlteracoes,
+                         @Value("${pedidos.alteracoes.janela:PT1M}") Duration janelaAlteracoes) {
         this.pedidoRepository = pedidoRepository;
         this.clienteRepository = clienteRepository;
+        this.clienteService = clienteService;
+        this.indiceBuscaCliente = indiceBuscaCliente;
+        this.indiceProdutosPedido = indiceProdutosPedido;
+        this.producaoService = producaoService;
+        this.pedidoExcluidoRepository = pedidoExcluidoRepository;
+        this.versaoPedidoCache = versaoPedidoCache;
+        this.eventos = eventos;
+        this.retencaoAlteracoes = retencaoAlteracoes;
+        this.janelaAlteracoes = janelaAlteracoes;
     }
 
     // ---------------------------------------------------------------------------------------------
@@ -38,40 +110,42 @@ public class PedidoService {
         if (pedido.getCliente() == null)
             throw new IllegalArgumentException("Pedido precisa ter um cliente.");
 
-        // 1) Busca cliente por telefone
-        String telefone = pedido.getCliente().getTelefone();
-        Cliente clienteExistente = clienteRepository.findByTelefone(telefone);
+        // 1) Busca cliente por telefone (cria ou atualiza nome/endereço)
+        pedido.setCliente(clienteService.resolverPorTelefone(pedido.getCliente()));
 
-        if (clienteExistente != null) {
-            // Atualiza dados básicos (opcional)
-            clienteExistente.setNome(pedido.getCliente().getNome());
-            clienteExistente.setEndereco(pedido.getCliente().getEndereco());
+        return gravarNovoPedido(pedido);
+    }
 
-            pedido.setCliente(clienteExistente);
-        } else {
-            // Cria novo cliente
-            Cliente novo = clienteRepository.save(pedido.getCliente());
-            pedido.setCliente(novo);
-        }
+    // Cadastro pela API: a resposta lê os dados do cliente, que o cadastro só referencia pelo id;
+    // o DTO é montado ainda na transação (lote, fila mobile e importação não leem o cliente)
+    @Transactional
+    public PedidoRespostaDTO cadastrarPedidoDTO(Pedido pedido) {
+        return PedidoRespostaDTO.de(cadastrarPedido(pedido));
+    }
+
+    // Grava um pedido cujo cliente já está resolvido (usado também pela importação em massa)
+    @Transactional
+    public Pedido gravarNovoPedido(Pedido pedido) {
 
-        // 2) Ajusta itens
+        // 2) Ajusta itens (preço sempre do catálogo)
         pedido.getItens().forEach(item -> {
             item.setPedido(pedido);
-            if (item.getPrecoUnitario() == null) {
-                item.setPrecoUnitario(item.getProduto().getPreco());
-            }
-            item.setSubtotal(item.getPrecoUnitario() * item.getQuantidade());
+            item.calcularSubtotal();
         });
 
         // 3) Calcula total
         calcularTotalPedido(pedido);
 
-        return pedidoRepository.save(pedido);
+        Pedido salvo = pedidoRepository.save(pedido);
+        producaoService.registrarPedido(salvo, +1);
+        eventos.publishEvent(PedidoAlteradoEvent.gravado(salvo));
+        return salvo;
     }
 
     // ---------------------------------------------------------------------------------------------
     // LISTAR TODOS
     // ---------------------------------------------------------------------------------------------
+    @Transactional(readOnly = true)
     public List<Pedido> listarPedidos() {
         List<Pedido> pedidos = pedidoRepository.findAllWithItens();
 
@@ -95,46 +169,113 @@ public class PedidoService {
         return pedidos;
     }
 
-    public List<PedidoResumoDTO> listarPedidosResumo() {
-        return pedidoRepository.findAll()
-                .stream()
-                .map(p -> new PedidoResumoDTO(
-                        p.getId(),
-                        p.getCliente().getNome(),
-                        p.getCliente().getTelefone(),
-                        p.getCliente().getEndereco(),
-                        p.getDataEntrega(),
-                        p.getTaxaEntrega(),
-                        p.getItens().stream().map(i ->
-                                new PedidoResumoDTO.ItemDTO(
-                                        i.getProduto().name(),
-                                        i.getQuantidade(),
-                                        i.getPrecoUnitario(),
-                                        i.getProduto().getDescricao() // se existir
-                                )
-                        ).toList()
-                ))
-                .toList();
+    // Listagem paginada por chave: cada página custa o mesmo, não importa a posição no histórico.
+    // Sempre duas consultas (pedidos + itens da página), montando os DTOs sem passar por entidades.
+    @Transactional(readOnly = true)
+    public PaginaPedidosDTO listarPedidosResumo(String cursor, int tamanho) {
+        int limite = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        CursorPedido posicao = cursor != null && !cursor.isBlank() ? CursorPedido.decodificar(cursor) : null;
+
+        // Busca um a mais para saber se existe próxima página
+        List<PedidoResumoDTO> pedidos = new ArrayList<>();
+        if (posicao == null) {
+            pedidos.addAll(pedidoRepository.primeiraPagina(Limit.of(limite + 1)));
+        } else if (posicao.dataEntrega() != null) {
+            pedidos.addAll(pedidoRepository.paginaApos(posicao.dataEntrega(), posicao.id(), Limit.of(limite + 1)));
+        }
+
+        // Terminados os pedidos com data, continua pelos sem data
+        if (pedidos.size() <= limite) {
+            Long idSemData = posicao != null && posicao.dataEntrega() == null ? posicao.id() : Long.MAX_VALUE;
+            pedidos.addAll(pedidoRepository.paginaSemDataApos(idSemData, Limit.of(limite + 1 - pedidos.size())));
+        }
+
+        String proximoCursor = null;
+        if (pedidos.size() > limite) {
+            pedidos = pedidos.subList(0, limite);
+            PedidoResumoDTO ultimo = pedidos.get(limite - 1);
+            proximoCursor = new CursorPedido(ultimo.dataEntrega, ultimo.id).codificar();
+        }
+
+        preencherItensResumo(pedidos);
+
+        return new PaginaPedidosDTO(pedidos, proximoCursor);
     }
 
     // ---------------------------------------------------------------------------------------------
-    // BUSCAR POR ID
+    // FEED DE ALTERAÇÕES (sincronização do app)
     // ---------------------------------------------------------------------------------------------
-    public Pedido buscarPedido(Long id) {
-        Pedido pedido = pedidoRepository.findById(id).orElse(null);
+    // Pedidos gravados desde o token (inclusive os cujo cliente mudou) e ids excluídos, no mesmo
+    // formato da listagem. Sem token, com token vencido ou com alterações demais, devolve só
+    // recarregar = true e o token a partir do qual o app continua depois de baixar a lista.
+    // Lê do primário (não readOnly): a réplica atrasada faria o app perder alterações de vez.
+    @Transactional
+    public AlteracoesPedidosDTO listarAlteracoes(String since) {
+        // Instante tomado antes das consultas: o que gravar durante elas vem na próxima chamada
+        LocalDateTime agora = LocalDateTime.now();
+        String token = new TokenAlteracoes(agora).codificar();
+
+        if (since == null || since.isBlank()) return AlteracoesPedidosDTO.recarregar(token);
+        LocalDateTime instante = TokenAlteracoes.decodificar(since).instante();
+        if (instante.isBefore(agora.minus(retencaoAlteracoes))) return AlteracoesPedidosDTO.recarregar(token);
+
+        LocalDateTime desde = instante.minus(janelaAlteracoes);
+        Map<Long, PedidoResumoDTO> alterados = new LinkedHashMap<>();
+        for (PedidoResumoDTO p : pedidoRepository.alteradosDesde(desde, Limit.of(LIMITE_ALTERACOES + 1)))
+            alterados.put(p.id, p);
+        for (PedidoResumoDTO p : pedidoRepository.clienteAlteradoDesde(desde, Limit.of(LIMITE_ALTERACOES + 1)))
+            alterados.putIfAbsent(p.id, p);
+        if (alterados.size() > LIMITE_ALTERACOES) return AlteracoesPedidosDTO.recarregar(token);
+
+        List<PedidoResumoDTO> pedidos = new ArrayList<>(alterados.values());
+        preencherItensResumo(pedidos);
+
+        return new AlteracoesPedidosDTO(pedidos, pedidoExcluidoRepository.excluidosDesde(desde), token, false);
+    }
 
-        if (pedido != null) {
-            pedido.setItens(
-                    pedido.getItens().stream()
-                            .filter(item -> item.getQuantidade() > 0)
-                            .toList()
-            );
-            calcularTotalPedido(pedido);
+    private void preencherItensResumo(List<PedidoResumoDTO> pedidos) {
+        if (pedidos.isEmpty()) return;
+
+        Map<Long, List<PedidoResumoDTO.ItemDTO>> itensPorPedido = new HashMap<>();
+        for (PedidoItemProjecao i : pedidoRepository.itensDosPedidos(pedidos.stream().map(p -> p.id).toList())) {
+            itensPorPedido.computeIfAbsent(i.pedidoId(), id -> new ArrayList<>())
+                    .add(new PedidoResumoDTO.ItemDTO(
+                            i.produto().name(),
+                            i.quantidade(),
+                            i.precoUnitarioCentavos(),
+                            i.produto().getDescricao()
+                    ));
         }
 
-        return pedido;
+        for (PedidoResumoDTO p : pedidos) {
+            p.itens = itensPorPedido.getOrDefault(p.id, List.of());
+        }
     }
 
+    // ---------------------------------------------------------------------------------------------
+    // BUSCAR POR ID
+    // ---------------------------------------------------------------------------------------------
+    // Uma consulta com o filtro de quantidade no SQL; a conexão fica presa só durante ela.
+    // valorTotal = taxa + itens com quantidade > 0. Null se o pedido não existe.
+    @Transactional(readOnly = true)
+    public PedidoRespostaDTO buscarPedido(Long id) {
+        List<PedidoDetalheProjecao> linhas = pedidoRepository.detalhe(id);
+        return linhas.isEmpty() ? null : PedidoRespostaDTO.de(linhas);
+    }
+
+    // ETag do detalhe: da memória (VersaoPedidoCache) ou, se não está lá, da consulta por PK, que
+    // alimenta a memória; null se o pedido não existe. Sem transação própria: o acerto não abre nenhuma
+    public String etagPedido(Long id) {
+        String conhecido = versaoPedidoCache.etagConhecido(id);
+        if (conhecido != null) return conhecido;
+
+        VersaoPedidoProjecao versao = pedidoRepository.versao(id);
+        if (versao == null) return null;
+        versaoPedidoCache.registrar(versao);
+        return versao.etag();
+    }
+
+    @Transactional(readOnly = true)
     public PedidoResumoDTO buscarDetalhesCompletos(Long pedidoId) {
         // É necessário importar esta exceção se ela ainda estiver faltando
         // throw new com.example.pedidos.exceptions.RecursoNaoEncontradoException("Pedido não encontrado.");
@@ -154,7 +295,7 @@ public class PedidoService {
                 .map(item -> new PedidoResumoDTO.ItemDTO(
                         item.getProduto().name(),           // Código do Enum (Ex: "FILE")
                         item.getQuantidade(),
-                        item.getPrecoUnitario(),
+                        item.getPrecoUnitarioCentavos(),
                         item.getProduto().getDescricao()    // Descrição para o Front-end
                 )).toList();
 
@@ -165,7 +306,7 @@ public class PedidoService {
                 pedido.getCliente().getTelefone(),  // Telefone
                 pedido.getCliente().getEndereco(),  // Endereço
                 pedido.getDataEntrega(),
-                pedido.getTaxaEntrega(),
+                pedido.getTaxaEntregaCentavos(),
                 itensDTO // A lista de itens que faltava!
         );
     }
@@ -179,165 +320,202 @@ public class PedidoService {
         Pedido pedidoExistente = pedidoRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado"));
 
+        // Com a data de entrega nova o pedido inteiro muda de dia no consolidado de produção;
+        // senão só entram nele os itens que mudaram
+        LocalDateTime dataAnterior = pedidoExistente.getDataEntrega();
+        boolean mudouData = !Objects.equals(dataAnterior, pedidoAtualizado.getDataEntrega());
+        if (mudouData) producaoService.registrarPedido(pedidoExistente, -1);
+
         // 1. Lógica do Cliente: Associa ou Atualiza o Cliente no Pedido
 
         Cliente clienteAtualizado = pedidoAtualizado.getCliente();
 
         // CRÍTICO: Buscar cliente existente pelo ID (se estiver em edição) ou Telefone (se for um cliente novo, mas que já existe no banco)
 
-        Cliente clienteNoBanco;
-        if (clienteAtualizado.getId() != null) {
-            // Se o payload trouxe ID, buscamos ele
-            clienteNoBanco = clienteRepository.findById(clienteAtualizado.getId()).orElse(null);
-        } else {
-            // Se não trouxe ID, buscamos pelo telefone (como no cadastro)
-            clienteNoBanco = clienteRepository.findByTelefone(clienteAtualizado.getTelefone());
-        }
-
-        if (clienteNoBanco != null) {
-            // Cliente existe: Atualiza os dados do cliente no banco
-            clienteNoBanco.setNome(clienteAtualizado.getNome());
-            clienteNoBanco.setEndereco(clienteAtualizado.getEndereco());
-            // Note: O telefone não é alterado (geralmente é imutável ou requer lógica mais complexa)
-
-            // Salva as alterações no cliente e o associa ao pedido existente
-            clienteRepository.save(clienteNoBanco);
-            pedidoExistente.setCliente(clienteNoBanco);
+        if (clienteAtualizado.getId() == null) {
+            // Se não trouxe ID, resolvemos pelo telefone (como no cadastro)
+            pedidoExistente.setCliente(clienteService.resolverPorTelefone(clienteAtualizado));
         } else {
-            // Cliente não existe: Salva como novo e associa ao pedido
-            Cliente novo = clienteRepository.save(clienteAtualizado);
-            pedidoExistente.setCliente(novo);
+            // Se o payload trouxe ID, buscamos ele
+            Cliente clienteNoBanco = clienteRepository.findById(clienteAtualizado.getId()).orElse(null);
+
+            if (clienteNoBanco != null) {
+                // Cliente existe: Atualiza os dados do cliente no banco
+                clienteNoBanco.setNome(clienteAtualizado.getNome());
+                clienteNoBanco.setEndereco(clienteAtualizado.getEndereco());
+                // Note: O telefone não é alterado (geralmente é imutável ou requer lógica mais complexa)
+
+                // Salva as alterações no cliente e o associa ao pedido existente
+                clienteRepository.save(clienteNoBanco);
+                pedidoExistente.setCliente(clienteNoBanco);
+                eventos.publishEvent(ClienteAlteradoEvent.gravado(clienteNoBanco, clienteNoBanco.getTelefone()));
+            } else {
+                // Cliente não existe: Salva como novo e associa ao pedido
+                Cliente novo = clienteRepository.save(clienteAtualizado);
+                pedidoExistente.setCliente(novo);
+                eventos.publishEvent(ClienteAlteradoEvent.gravado(novo, null));
+            }
         }
 
-        // Atualiza campos principais
+        // Atualiza campos principais; o total é ajustado pela diferença, sem resomar os itens
+        long totalCentavos = pedidoExistente.getValorTotalCentavos()
+                - pedidoExistente.getTaxaEntregaCentavos() + pedidoAtualizado.getTaxaEntregaCentavos();
         pedidoExistente.setDataEntrega(pedidoAtualizado.getDataEntrega());
-        pedidoExistente.setTaxaEntrega(pedidoAtualizado.getTaxaEntrega());
+        pedidoExistente.setTaxaEntregaCentavos(pedidoAtualizado.getTaxaEntregaCentavos());
 
-        // Remove itens que não existem mais
-        pedidoExistente.getItens().removeIf(item ->
-                pedidoAtualizado.getItens().stream()
-                        .noneMatch(i -> i.getProduto() == item.getProduto())
-        );
-
-        // Adiciona/atualiza itens
-        for (PedidoItem itemAtualizado : pedidoAtualizado.getItens()) {
+        // Itens: só os inseridos, alterados e removidos viram SQL (@DynamicUpdate nas entidades)
+        DiferencaItens diferenca = DiferencaItens.calcular(pedidoExistente.getItens(), pedidoAtualizado.getItens());
 
-            if (itemAtualizado.getPrecoUnitario() == null) {
-                itemAtualizado.setPrecoUnitario(itemAtualizado.getProduto().getPreco());
-            }
+        for (PedidoItem removido : diferenca.removidos()) {
+            if (!mudouData) producaoService.registrarItem(dataAnterior, removido, -1);
+            totalCentavos -= removido.getSubtotalCentavos();
+            pedidoExistente.getItens().remove(removido);
+        }
 
-            PedidoItem existente = pedidoExistente.getItens().stream()
-                    .filter(i -> i.getProduto() == itemAtualizado.getProduto())
-                    .findFirst()
-                    .orElse(null);
+        for (DiferencaItens.Alteracao alteracao : diferenca.alterados()) {
+            PedidoItem item = alteracao.item();
+            if (!mudouData) producaoService.registrarItem(dataAnterior, item, -1);
+            totalCentavos -= item.getSubtotalCentavos();
+            item.setQuantidade(alteracao.quantidade());
+            item.calcularSubtotal();
+            totalCentavos += item.getSubtotalCentavos();
+            if (!mudouData) producaoService.registrarItem(dataAnterior, item, +1);
+        }
 
-            if (existente != null) {
-                existente.setQuantidade(itemAtualizado.getQuantidade());
-                existente.setPrecoUnitario(itemAtualizado.getPrecoUnitario());
-                existente.setSubtotal(existente.getPrecoUnitario() * existente.getQuantidade());
-            } else {
-                itemAtualizado.setPedido(pedidoExistente);
-                itemAtualizado.setSubtotal(itemAtualizado.getPrecoUnitario() * itemAtualizado.getQuantidade());
-                pedidoExistente.getItens().add(itemAtualizado);
-            }
+        for (PedidoItem inserido : diferenca.inseridos()) {
+            inserido.setPedido(pedidoExistente);
+            inserido.calcularSubtotal();
+            pedidoExistente.getItens().add(inserido);
+            totalCentavos += inserido.getSubtotalCentavos();
+            if (!mudouData) producaoService.registrarItem(dataAnterior, inserido, +1);
         }
 
-        pedidoExistente.getItens().removeIf(item -> item.getQuantidade() <= 0);
+        pedidoExistente.setValorTotalCentavos(totalCentavos);
+        // Mudança só nos itens pode não sujar a linha do pedido: marca para a versão e o feed de alterações
+        if (!diferenca.isVazia())
+            pedidoExistente.setAtualizadoEm(LocalDateTime.now());
+        if (mudouData) producaoService.registrarPedido(pedidoExistente, +1);
 
-        calcularTotalPedido(pedidoExistente);
+        Pedido salvo = pedidoRepository.save(pedidoExistente);
+        eventos.publishEvent(PedidoAlteradoEvent.gravado(salvo));
+        return salvo;
+    }
 
-        return pedidoRepository.save(pedidoExistente);
+    // Como cadastrarPedidoDTO; o flush antes grava a nova versão que vai na resposta
+    @Transactional
+    public PedidoRespostaDTO atualizarPedidoDTO(Long id, Pedido pedidoAtualizado) {
+        Pedido salvo = atualizarPedido(id, pedidoAtualizado);
+        pedidoRepository.flush();
+        return PedidoRespostaDTO.de(salvo);
     }
 
     // ---------------------------------------------------------------------------------------------
     // EXCLUIR
     // ---------------------------------------------------------------------------------------------
+    @Transactional
     public void excluirPedido(Long id) {
-        if (!pedidoRepository.existsById(id))
-            throw new RuntimeException("Pedido não encontrado com id: " + id);
+        Pedido pedido = pedidoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+
+        producaoService.registrarPedido(pedido, -1);
+        pedidoRepository.delete(pedido);
 
-        pedidoRepository.deleteById(id);
+        // Registro da exclusão para o feed de alterações; os vencidos saem aqui mesmo
+        LocalDateTime agora = LocalDateTime.now();
+        pedidoExcluidoRepository.save(new PedidoExcluido(id, agora));
+        pedidoExcluidoRepository.removerAnteriores(agora.minus(retencaoAlteracoes));
+        eventos.publishEvent(PedidoAlteradoEvent.excluido(id));
     }
 
     // ---------------------------------------------------------------------------------------------
     // FILTROS PERSONALIZADOS
     // ---------------------------------------------------------------------------------------------
-    public List<?> buscarPedidosComFiltrosDTO(
+    @Transactional(readOnly = true)
+    public ResultadoBuscaDTO buscarPedidosComFiltrosDTO(
             String cliente,
             String telefone,
             String produto,
+            Integer quantidadeMinima,
             LocalDateTime inicio,
             LocalDateTime fim
     ) {
 
-        List<Pedido> pedidos = pedidoRepository.findAllWithItens();
-
-        // ------ FILTROS BÁSICOS (cliente / telefone / datas) ------
-        if (cliente != null && !cliente.isBlank()) {
-            pedidos = pedidos.stream()
-                    .filter(p -> p.getCliente() != null &&
-                            p.getCliente().getNome().toLowerCase().contains(cliente.toLowerCase()))
-                    .toList();
+        // ------ FILTROS (só entram na consulta os que foram informados) ------
+        List<Specification<Pedido>> filtros = new ArrayList<>();
+
+        boolean porNome = cliente != null && !cliente.isBlank();
+        boolean porTelefone = telefone != null && !telefone.isBlank();
+        String trechoTelefone = porTelefone ? Telefones.normalizar(telefone) : null;
+        if (porTelefone && trechoTelefone.isEmpty()) return ResultadoBuscaDTO.vazio();
+        if (porNome || porTelefone) {
+            // Trecho de nome/telefone: o índice em memória resolve os clientes (LIKE '%...%' varre a tabela)
+            List<Long> clienteIds = indiceBuscaCliente.buscar(cliente, telefone, MAXIMO_CLIENTES_FILTRO);
+            if (clienteIds == null) {
+                if (porNome) filtros.add(PedidoSpecifications.clienteNomeContem(cliente));
+                if (porTelefone) filtros.add(PedidoSpecifications.telefoneNormalizadoContem(trechoTelefone));
+            } else if (clienteIds.isEmpty()) {
+                return ResultadoBuscaDTO.vazio();
+            } else {
+                filtros.add(PedidoSpecifications.clienteEm(clienteIds));
+            }
         }
 
-        if (telefone != null && !telefone.isBlank()) {
-            pedidos = pedidos.stream()
-                    .filter(p -> p.getCliente() != null &&
-                            p.getCliente().getTelefone() != null &&
-                            p.getCliente().getTelefone().contains(telefone))
-                    .toList();
+        boolean porPeriodo = inicio != null && fim != null;
+        if (porPeriodo)
+            filtros.add(PedidoSpecifications.dataEntregaEntre(inicio, fim));
+
+        // Produtos separados por vírgula: o pedido precisa ter todos, cada um com a quantidade mínima
+        EnumSet<Produto> produtos = EnumSet.noneOf(Produto.class);
+        if (produto != null && !produto.isBlank()) {
+            for (String nomeProduto : produto.split(",")) {
+                if (nomeProduto.isBlank()) continue;
+                try {
+                    produtos.add(Produto.valueOf(nomeProduto.trim()));
+                } catch (IllegalArgumentException e) {
+                    return ResultadoBuscaDTO.vazio();
+                }
+            }
         }
 
-        if (inicio != null && fim != null) {
-            pedidos = pedidos.stream()
-                    .filter(p -> p.getDataEntrega() != null &&
-                            !p.getDataEntrega().isBefore(inicio) &&
-                            !p.getDataEntrega().isAfter(fim))
-                    .toList();
+        if (!produtos.isEmpty()) {
+            int minimo = quantidadeMinima != null ? Math.max(1, quantidadeMinima) : 1;
+            // Máscara de produtos em memória; o banco só recebe os ids (ou os EXISTS, sem o índice)
+            List<Long> pedidoIds = indiceProdutosPedido.buscar(produtos, minimo,
+                    porPeriodo ? inicio : null, porPeriodo ? fim : null, MAXIMO_PEDIDOS_FILTRO);
+            if (pedidoIds == null) {
+                for (Produto p : produtos) filtros.add(PedidoSpecifications.contemProduto(p, minimo));
+            } else if (pedidoIds.isEmpty()) {
+                return ResultadoBuscaDTO.vazio();
+            } else {
+                filtros.add(PedidoSpecifications.idEm(pedidoIds));
+            }
         }
 
-        // CASO NÃO FILTRE POR PRODUTO → RETORNAR RESUMO
-        if (produto == null || produto.isBlank()) {
-            return pedidos.stream()
-                    .map(p -> new PedidoResumoDTO(
-                            p.getId(),
-                            p.getCliente().getNome(),
-                            p.getCliente().getTelefone(),
-                            p.getCliente().getEndereco(),
-                            p.getDataEntrega(),
-                            p.getTaxaEntrega(),
-                            p.getItens().stream().map(i ->
-                                    new PedidoResumoDTO.ItemDTO(
-                                            i.getProduto().name(),
-                                            i.getQuantidade(),
-                                            i.getPrecoUnitario(),
-                                            i.getProduto().getDescricao()
-                                    )
-                            ).toList()
-                    )).toList();
+        // Resultado limitado (uma linha a mais só para saber se há mais); o cliente vem no mesmo
+        // SELECT e os itens numa segunda consulta
+        List<Pedido> pedidos = pedidoRepository.findBy(
+                Specification.allOf(filtros),
+                q -> q.sortBy(ORDEM_BUSCA).limit(LIMITE_BUSCA + 1).project("cliente").all()
+        );
+        boolean truncado = pedidos.size() > LIMITE_BUSCA;
+        if (truncado) pedidos = pedidos.subList(0, LIMITE_BUSCA);
 
-        }
+        if (!pedidos.isEmpty())
+            pedidoRepository.carregarItens(pedidos.stream().map(Pedido::getId).toList());
 
-        // ------ FILTRO POR ITEM: precisa retornar itens também ------
-        Produto prodEnum;
-        try {
-            prodEnum = Produto.valueOf(produto);
-        } catch (IllegalArgumentException e) {
-            return new ArrayList<>();
+        // CASO NÃO FILTRE POR PRODUTO → RETORNAR RESUMO
+        if (produtos.isEmpty()) {
+            return new ResultadoBuscaDTO(pedidos.stream().map(this::paraResumoDTO).toList(), truncado);
         }
 
-        List<Pedido> pedidosFiltrados = pedidos.stream()
-                .filter(p -> p.getItens().stream()
-                        .anyMatch(i -> i.getProduto() == prodEnum && i.getQuantidade() > 0))
-                .toList();
-
-        return pedidosFiltrados.stream()
+        // ------ FILTRO POR ITEM: precisa retornar itens também ------
+        return new ResultadoBuscaDTO(pedidos.stream()
                 .map(p -> new PedidoComItensDTO(
                         p.getId(),
                         p.getCliente().getNome(),
                         p.getCliente().getTelefone(),
                         p.getDataEntrega(),
-                        p.getTaxaEntrega(),
+                        p.getTaxaEntregaCentavos(),
                         p.getItens().stream()
                                 .filter(i -> i.getQuantidade() > 0)
                                 .map(i -> new PedidoComItensDTO.ItemDTO(
@@ -345,28 +523,76 @@ public class PedidoService {
                                         i.getQuantidade()
                                 )).toList()
                 ))
-                .toList();
+                .toList(), truncado);
     }
 
 
     // ---------------------------------------------------------------------------------------------
     // MÉTODOS AUXILIARES
     // ---------------------------------------------------------------------------------------------
+    // Totais em centavos: soma exata de long, sem stream nem boxing
     public void calcularTotalPedido(Pedido p) {
-        double total = p.getItens().stream()
-                .mapToDouble(PedidoItem::getSubtotal)
-                .sum();
+        long total = p.getTaxaEntregaCentavos();
+        List<PedidoItem> itens = p.getItens();
+        for (int i = 0, n = itens.size(); i < n; i++) {
+            total += itens.get(i).getSubtotalCentavos();
+        }
+        p.setValorTotalCentavos(total);
+    }
 
-        if (p.getTaxaEntrega() != null)
-            total += p.getTaxaEntrega();
+    public long calcularTotalGeral(List<Pedido> pedidos) {
+        long total = 0;
+        for (int i = 0, n = pedidos.size(); i < n; i++) {
+            total += pedidos.get(i).getValorTotalCentavos();
+        }
+        return total;
+    }
 
-        p.setValorTotal(total);
+    private PedidoResumoDTO paraResumoDTO(Pedido p) {
+        return new PedidoResumoDTO(
+                p.getId(),
+                p.getCliente().getNome(),
+                p.getCliente().getTelefone(),
+                p.getCliente().getEndereco(),
+                p.getDataEntrega(),
+                p.getTaxaEntregaCentavos(),
+                p.getItens().stream().map(i ->
+                        new PedidoResumoDTO.ItemDTO(
+                                i.getProduto().name(),
+                                i.getQuantidade(),
+                                i.getPrecoUnitarioCentavos(),
+                                i.getProduto().getDescricao()
+                        )
+                ).toList()
+        );
     }
 
-    public double calcularTotalGeral(List<Pedido> pedidos) {
-        return pedidos.stream()
-                .mapToDouble(Pedido::getValorTotal)
-                .sum();
+    // ---------------------------------------------------------------------------------------------
+    // MONTAR PEDIDO A PARTIR DO DTO (mobile / lote)
+    // ---------------------------------------------------------------------------------------------
+    // O cliente vem só com os dados do DTO; cadastrarPedido resolve pelo telefone
+    public Pedido montarPedido(PedidoDTO dto) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(dto.nome);
+        cliente.setTelefone(dto.telefone);
+        cliente.setEndereco(dto.endereco);
+
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        pedido.setDataEntrega(dto.dataEntrega);
+        pedido.setTaxaEntregaCentavos(dto.taxaEntregaCentavos);
+
+        if (dto.itens != null) {
+            for (PedidoDTO.ItemDTO item : dto.itens) {
+                PedidoItem pi = new PedidoItem();
+                pi.setProduto(Produto.valueOf(item.produto));
+                pi.setQuantidade(item.quantidade);
+                pi.setPedido(pedido);
+                pedido.getItens().add(pi);
+            }
+        }
+
+        return pedido;
     }
 
     // ---------------------------------------------------------------------------------------------
@@ -382,8 +608,7 @@ public class PedidoService {
             PedidoItem item = new PedidoItem();
             item.setProduto(produto);
             item.setQuantidade(0);
-            item.setPrecoUnitario(produto.getPreco());
-            item.setSubtotal(0);
+            item.calcularSubtotal();
             item.setPedido(pedido);
             itens.add(item);
         }
@@ -409,19 +634,14 @@ public class PedidoService {
                 PedidoItem novo = new PedidoItem();
                 novo.setProduto(p);
                 novo.setQuantidade(0);
-                novo.setPrecoUnitario(p.getPreco());
-                novo.setSubtotal(0);
+                novo.calcularSubtotal();
                 novo.setPedido(pedido);
                 itens.add(novo);
             }
         }
 
-        itens.forEach(item -> {
-            if (item.getPrecoUnitario() == null) {
-                item.setPrecoUnitario(item.getProduto().getPreco());
-            }
-            item.setSubtotal(item.getPrecoUnitario() * item.getQuantidade());
-        });
+        // Itens já gravados mantêm o preço com que foram vendidos
+        itens.forEach(item -> item.setSubtotalCentavos(item.getPrecoUnitarioCentavos() * item.getQuantidade()));
 
         calcularTotalPedido(pedido);
 
@@ -0,0 +1,113 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.ProducaoDiariaDTO;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.ProducaoDiaria;
+import com.example.pedidos.Repositories.ProducaoDiariaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Mantém a tabela producao_diaria (dia de entrega x produto) a partir dos deltas dos itens.
+// Os deltas de uma transação são somados em memória e aplicados uma única vez antes do commit,
+// então um bloco de 100 pedidos gera no máximo um upsert por (dia, produto) tocado. Os upserts
+// saem sempre na mesma ordem (dia, produto) para transações concorrentes não travarem em ciclo.
+@Service
+public class ProducaoService {
+
+    private final ProducaoDiariaRepository producaoDiariaRepository;
+
+    public ProducaoService(ProducaoDiariaRepository producaoDiariaRepository) {
+        this.producaoDiariaRepository = producaoDiariaRepository;
+    }
+
+    // sinal = +1 ao gravar o estado atual do pedido, -1 para retirar o estado anterior
+    public void registrarPedido(Pedido pedido, int sinal) {
+        if (pedido.getItens() == null) return;
+        for (PedidoItem item : pedido.getItens()) {
+            registrarItem(pedido.getDataEntrega(), item, sinal);
+        }
+    }
+
+    public void registrarItem(LocalDateTime dataEntrega, PedidoItem item, int sinal) {
+        if (dataEntrega == null || item.getProduto() == null || item.getQuantidade() <= 0) return;
+
+        Acumulado delta = pendentes().computeIfAbsent(
+                new ProducaoDiaria.Chave(dataEntrega.toLocalDate(), item.getProduto()), c -> new Acumulado());
+        delta.quantidade += (long) sinal * item.getQuantidade();
+        delta.receitaCentavos += sinal * item.getSubtotalCentavos();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProducaoDiariaDTO> listar(LocalDate inicio, LocalDate fim) {
+        return producaoDiariaRepository.findByDataBetweenOrderByDataAscProdutoAsc(inicio, fim)
+                .stream()
+                .filter(r -> r.getQuantidade() != 0)
+                .map(r -> new ProducaoDiariaDTO(
+                        r.getData(),
+                        r.getProduto().name(),
+                        r.getProduto().getDescricao(),
+                        r.getQuantidade(),
+                        r.getReceitaCentavos()
+                ))
+                .toList();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // DELTAS PENDENTES DA TRANSAÇÃO
+    // ---------------------------------------------------------------------------------------------
+    private static class Acumulado {
+        long quantidade;
+        long receitaCentavos;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<ProducaoDiaria.Chave, Acumulado> pendentes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            throw new IllegalStateException("Atualização da produção diária exige uma transação ativa.");
+
+        Map<ProducaoDiaria.Chave, Acumulado> pendentes =
+                (Map<ProducaoDiaria.Chave, Acumulado>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            Map<ProducaoDiaria.Chave, Acumulado> novos = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, novos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    aplicar(novos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProducaoService.this);
+                }
+            });
+            pendentes = novos;
+        }
+        return pendentes;
+    }
+
+    private static final Comparator<ProducaoDiaria.Chave> ORDEM_CHAVES =
+            Comparator.comparing(ProducaoDiaria.Chave::getData).thenComparing(ProducaoDiaria.Chave::getProduto);
+
+    private void aplicar(Map<ProducaoDiaria.Chave, Acumulado> pendentes) {
+        List<ProducaoDiaria.Chave> chaves = new ArrayList<>(pendentes.keySet());
+        chaves.sort(ORDEM_CHAVES);
+        for (ProducaoDiaria.Chave chave : chaves) {
+            Acumulado delta = pendentes.get(chave);
+            if (delta.quantidade == 0 && delta.receitaCentavos == 0) continue;
+            producaoDiariaRepository.acumular(chave.getData(), chave.getProduto(), delta.quantidade, delta.receitaCentavos);
+        }
+        pendentes.clear();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.pedidos.Services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Posição do app no feed de alterações (GET /api/pedidos/changes): o instante em que a consulta
+// anterior começou. O token enviado ao app é opaco, Base64 do instante, como o CursorPedido.
+public record TokenAlteracoes(LocalDateTime instante) {
+
+    public String codificar() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(instante.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TokenAlteracoes decodificar(String token) {
+        try {
+            return new TokenAlteracoes(LocalDateTime.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Token de alterações inválido.");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.VersaoPedidoProjecao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+// Validador do ETag de GET /api/pedidos/{id} em memória, para o If-None-Match não ir ao banco.
+// A versão do pedido chega pelo PedidoAlteradoEvent (só cresce: merge com max) e a marca do cliente
+// sai no ClienteAlteradoEvent; o que falta aqui vem da consulta por PK (PedidoService.etagPedido).
+// Outra instância não vê os eventos desta: a expiração limita por quanto tempo ela ainda responde
+// 304 com um validador antigo.
+@Component
+public class VersaoPedidoCache {
+
+    // Marca de pedido excluído: maior que qualquer versão, nunca vira ETag
+    private static final long EXCLUIDO = Long.MAX_VALUE;
+
+    private record VersaoConhecida(long versao, Long clienteId) {
+
+        static VersaoConhecida maisNova(VersaoConhecida a, VersaoConhecida b) {
+            return b.versao > a.versao ? b : a;
+        }
+    }
+
+    private final Cache<Long, VersaoConhecida> pedidos;
+    // Última alteração do cliente (VersaoPedidoProjecao.marcaCliente), por id do cliente
+    private final Cache<Long, Long> clientes;
+
+    public VersaoPedidoCache(@Value("${pedidos.etag.tamanho-maximo:100000}") long tamanhoMaximo,
+                             @Value("${pedidos.etag.expiracao:PT1M}") Duration expiracao) {
+        this.pedidos = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .build();
+        this.clientes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .build();
+    }
+
+    // ETag atual do pedido, ou null se falta a versão do pedido ou a marca do cliente (ou o pedido
+    // foi excluído)
+    public String etagConhecido(Long pedidoId) {
+        VersaoConhecida pedido = pedidos.getIfPresent(pedidoId);
+        if (pedido == null || pedido.versao() == EXCLUIDO) return null;
+        Long marca = clientes.getIfPresent(pedido.clienteId());
+        if (marca == null) return null;
+        return VersaoPedidoProjecao.etag(pedidoId, pedido.versao(), marca);
+    }
+
+    // Lido do banco; não sobrescreve uma versão mais nova que já tenha chegado por evento
+    public void registrar(VersaoPedidoProjecao lida) {
+        registrarPedido(lida.pedidoId(), lida.versao(), lida.clienteId());
+        if (lida.clienteId() != null)
+            clientes.asMap().merge(lida.clienteId(),
+                    VersaoPedidoProjecao.marcaCliente(lida.clienteAtualizadoEm()), Math::max);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPedido(PedidoAlteradoEvent evento) {
+        if (evento.isExcluido()) {
+            pedidos.put(evento.pedidoId(), new VersaoConhecida(EXCLUIDO, null));
+        } else if (evento.pedido().getCliente() != null) {
+            registrarPedido(evento.pedidoId(), evento.pedido().getVersao(), evento.pedido().getCliente().getId());
+        }
+    }
+
+    // O evento não traz o novo atualizado_em do cliente: a próxima busca relê do banco
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCliente(ClienteAlteradoEvent evento) {
+        clientes.invalidate(evento.clienteId());
+    }
+
+    private void registrarPedido(Long pedidoId, Long versao, Long clienteId) {
+        if (pedidoId == null || versao == null || clienteId == null) return;
+        pedidos.asMap().merge(pedidoId, new VersaoConhecida(versao, clienteId), VersaoConhecida::maisNova);
+    }
+}
@@ -0,0 +1,108 @@
+-- Alterações de schema do banco MySQL (spring.jpa.hibernate.ddl-auto=none).
+-- Aplicar em ordem; cada bloco acompanha a mudança de código correspondente.
+
+-- Paginação por chave da listagem de pedidos (GET /api/pedidos)
+CREATE INDEX idx_pedido_data_entrega_id ON pedido (data_entrega, id);
+
+-- Versão otimista do pedido (ETag de GET /api/pedidos/{id})
+ALTER TABLE pedido ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+
+-- Ids de pedido e item por sequência (permite INSERT em lote). No MySQL o Hibernate emula
+-- a sequência com uma tabela de uma linha. O valor inicial precisa passar do maior id atual
+-- em pelo menos allocationSize (50) + 1, por causa do otimizador "pooled".
+CREATE TABLE pedido_seq (next_val BIGINT);
+INSERT INTO pedido_seq SELECT COALESCE(MAX(id), 0) + 51 FROM pedido;
+CREATE TABLE pedido_item_seq (next_val BIGINT);
+INSERT INTO pedido_item_seq SELECT COALESCE(MAX(id), 0) + 51 FROM pedido_item;
+
+-- Consolidado de produção por dia de entrega e produto (GET /api/relatorios/producao),
+-- já carregado com o histórico existente
+CREATE TABLE producao_diaria (
+    data DATE NOT NULL,
+    produto VARCHAR(20) NOT NULL,
+    quantidade BIGINT NOT NULL,
+    receita DOUBLE NOT NULL,
+    PRIMARY KEY (data, produto)
+);
+INSERT INTO producao_diaria (data, produto, quantidade, receita)
+SELECT DATE(p.data_entrega), i.produto, SUM(i.quantidade), SUM(i.subtotal)
+FROM pedido p JOIN pedido_item i ON i.pedido_id = p.id
+WHERE p.data_entrega IS NOT NULL AND i.quantidade > 0
+GROUP BY DATE(p.data_entrega), i.produto;
+
+-- Telefone normalizado do cliente (Telefones.normalizar: só dígitos, sem 00/55/0 na frente)
+-- com índice único; base do upsert de cliente no cadastro de pedidos
+ALTER TABLE cliente ADD COLUMN telefone_normalizado VARCHAR(20) NULL;
+UPDATE cliente SET telefone_normalizado = REGEXP_REPLACE(telefone, '[^0-9]', '');
+UPDATE cliente SET telefone_normalizado = SUBSTRING(telefone_normalizado, 3)
+WHERE telefone_normalizado LIKE '00%';
+UPDATE cliente SET telefone_normalizado = SUBSTRING(telefone_normalizado, 3)
+WHERE telefone_normalizado LIKE '55%' AND CHAR_LENGTH(telefone_normalizado) IN (12, 13);
+UPDATE cliente SET telefone_normalizado = SUBSTRING(telefone_normalizado, 2)
+WHERE telefone_normalizado LIKE '0%' AND CHAR_LENGTH(telefone_normalizado) IN (11, 12);
+-- Cadastros duplicados (mesmo número com formatação diferente): os pedidos passam para o mais antigo
+CREATE TEMPORARY TABLE cliente_duplicado AS
+SELECT c.id, m.manter
+FROM cliente c
+JOIN (SELECT telefone_normalizado, MIN(id) AS manter FROM cliente GROUP BY telefone_normalizado) m
+  ON m.telefone_normalizado = c.telefone_normalizado
+WHERE c.id <> m.manter;
+UPDATE pedido p JOIN cliente_duplicado d ON d.id = p.cliente_id SET p.cliente_id = d.manter;
+DELETE c FROM cliente c JOIN cliente_duplicado d ON d.id = c.id;
+DROP TEMPORARY TABLE cliente_duplicado;
+ALTER TABLE cliente
+    MODIFY telefone_normalizado VARCHAR(20) NOT NULL,
+    ADD CONSTRAINT uk_cliente_telefone_normalizado UNIQUE (telefone_normalizado);
+
+-- Valores em centavos (BIGINT) no lugar de DOUBLE; a API continua recebendo e devolvendo reais
+ALTER TABLE pedido
+    ADD COLUMN taxa_entrega_centavos BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN valor_total_centavos BIGINT NOT NULL DEFAULT 0;
+UPDATE pedido SET
+    taxa_entrega_centavos = ROUND(COALESCE(taxa_entrega, 0) * 100),
+    valor_total_centavos = ROUND(COALESCE(valor_total, 0) * 100);
+ALTER TABLE pedido DROP COLUMN taxa_entrega, DROP COLUMN valor_total;
+
+ALTER TABLE pedido_item
+    ADD COLUMN preco_unitario_centavos BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN subtotal_centavos BIGINT NOT NULL DEFAULT 0;
+UPDATE pedido_item SET
+    preco_unitario_centavos = ROUND(COALESCE(preco_unitario, 0) * 100),
+    subtotal_centavos = ROUND(COALESCE(subtotal, 0) * 100);
+ALTER TABLE pedido_item DROP COLUMN preco_unitario, DROP COLUMN subtotal;
+
+ALTER TABLE producao_diaria ADD COLUMN receita_centavos BIGINT NOT NULL DEFAULT 0;
+UPDATE producao_diaria SET receita_centavos = ROUND(receita * 100);
+ALTER TABLE producao_diaria DROP COLUMN receita;
+
+-- Idempotency-Key dos POSTs de pedido: resposta original guardada para repetir em novas tentativas
+-- (status nulo = em processamento; linhas vencidas são removidas pela aplicação)
+CREATE TABLE chave_idempotencia (
+    chave VARCHAR(100) NOT NULL PRIMARY KEY,
+    hash_requisicao VARBINARY(32) NOT NULL,
+    status INT NULL,
+    tipo_conteudo VARCHAR(100) NULL,
+    localizacao VARCHAR(200) NULL,
+    corpo MEDIUMBLOB NULL,
+    criado_em DATETIME(6) NOT NULL,
+    INDEX idx_chave_idempotencia_criado_em (criado_em)
+);
+
+-- Feed de alterações do app (GET /api/pedidos/changes): última gravação de pedido e cliente
+-- e registro das exclusões (removido pela aplicação depois de pedidos.alteracoes.retencao)
+ALTER TABLE pedido
+    ADD COLUMN atualizado_em DATETIME(6) NULL,
+    ADD INDEX idx_pedido_atualizado_em (atualizado_em);
+ALTER TABLE cliente
+    ADD COLUMN atualizado_em DATETIME(6) NULL,
+    ADD INDEX idx_cliente_atualizado_em (atualizado_em);
+CREATE TABLE pedido_excluido (
+    pedido_id BIGINT NOT NULL PRIMARY KEY,
+    excluido_em DATETIME(6) NOT NULL,
+    INDEX idx_pedido_excluido_excluido_em (excluido_em)
+);
+
+-- Prazo da reserva de Idempotency-Key: chave em andamento há mais que pedidos.idempotencia.prazo-reserva
+-- (instância caiu no meio da requisição) pode ser assumida pela próxima tentativa
+ALTER TABLE chave_idempotencia ADD COLUMN reservado_em DATETIME(6) NULL;
+UPDATE chave_idempotencia SET reservado_em = criado_em WHERE status IS NULL;
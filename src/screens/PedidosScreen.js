@@ -4,7 +4,7 @@ import { SafeAreaView } from 'react-native-safe-area-context';
 import { useFocusEffect } from '@react-navigation/native';
 import DateTimePicker from '@react-native-community/datetimepicker';
 
-import { getTodosPedidos } from '../services/api'; 
+import { getTodosPedidos, getPedidosResumo } from '../services/api'; 
 const deletePedido = async (id) => {
     console.log(`Simulando exclusão do pedido ID: ${id}`);
     await new Promise(resolve => setTimeout(resolve, 500));
@@ -29,6 +29,19 @@ const getProdutoNomeByKey = (key) => {
     return produto ? produto.nome : key;
 };
 
+// Pedidos por página na lista sem filtros (GET /api/pedidos, paginado pelo servidor)
+const TAMANHO_PAGINA = 50;
+
+const semFiltros = (filters) =>
+    !filters.nome && !filters.telefone && !filters.item && !filters.dataInicial && !filters.dataFinal;
+
+const ordenarPorEntrega = (lista) => [...lista].sort((a, b) => {
+    const dataA = new Date(a.dataEntrega);
+    const dataB = new Date(b.dataEntrega);
+
+    return dataB - dataA; 
+});
+
 const formatTelefone = (tel) => {
     if (!tel) return 'Telefone Não Informado';
     const digits = tel.replace(/\D/g, '');
@@ -142,6 +155,10 @@ const PedidoItem = ({ pedido, onEdit, onDelete, onDetails }) => {
 // TELA PRINCIPAL
 export default function PedidosScreen({ navigation }) {
     const [pedidos, setPedidos] = useState([]);
+    const [truncado, setTruncado] = useState(false);
+    // Lista sem filtros: cursor da próxima página (null quando acabou ou quando há filtro)
+    const [proximoCursor, setProximoCursor] = useState(null);
+    const [carregandoMais, setCarregandoMais] = useState(false);
     const [loading, setLoading] = useState(false);
     const [isRefreshing, setIsRefreshing] = useState(false); 
 
@@ -212,16 +229,17 @@ export default function PedidosScreen({ navigation }) {
         };
         
         try {
-            const result = await getTodosPedidos(filters);
+            // Sem filtros a lista vem paginada (mais páginas ao rolar); a busca com filtros é limitada
+            // pelo servidor e avisa quando veio cortada
+            const paginada = semFiltros(filters);
+            const result = paginada
+                ? await getPedidosResumo(null, TAMANHO_PAGINA)
+                : await getTodosPedidos(filters);
 
             if (result.success) {
-                const pedidosOrdenados = [...result.data].sort((a, b) => {
-                    const dataA = new Date(a.dataEntrega);
-                    const dataB = new Date(b.dataEntrega);
-
-                    return dataB - dataA; 
-                });
-                setPedidos(pedidosOrdenados);
+                setPedidos(ordenarPorEntrega(result.data));
+                setTruncado(paginada ? false : result.truncado);
+                setProximoCursor(paginada ? result.proximoCursor : null);
                 
                 result.data.forEach((p, index) => {
                     if (!p) {
@@ -240,16 +258,38 @@ export default function PedidosScreen({ navigation }) {
             } else {
                 Alert.alert("Erro ao Carregar", result.message || "Não foi possível carregar os pedidos.");
                 setPedidos([]);
+                setTruncado(false);
+                setProximoCursor(null);
             }
         } catch (error) {
             console.error("Erro na API:", error);
             Alert.alert("Erro de Conexão", "Não foi possível conectar ao servidor.");
             setPedidos([]);
+            setTruncado(false);
+            setProximoCursor(null);
         } finally {
             setLoad(false);
         }
     };
 
+    // Próxima página da lista sem filtros, ao chegar perto do fim
+    const carregarMaisPedidos = async () => {
+        if (!proximoCursor || carregandoMais) return;
+        setCarregandoMais(true);
+        try {
+            const result = await getPedidosResumo(proximoCursor, TAMANHO_PAGINA);
+            if (result.success) {
+                setPedidos(prev => {
+                    const ids = new Set(prev.map(p => p.id));
+                    return ordenarPorEntrega([...prev, ...result.data.filter(p => !ids.has(p.id))]);
+                });
+                setProximoCursor(result.proximoCursor);
+            }
+        } finally {
+            setCarregandoMais(false);
+        }
+    };
+
     // EFEITO DE BUSCA
     useEffect(() => {
         if (searchTrigger > 0) { 
@@ -383,7 +423,7 @@ export default function PedidosScreen({ navigation }) {
     return (
         <SafeAreaView style={styles.container}>
             <View style={styles.header}>
-                <Text style={styles.title}>Pedidos ({pedidos.length})</Text>
+                <Text style={styles.title}>Pedidos ({pedidos.length}{proximoCursor ? '+' : ''})</Text>
                 <TouchableOpacity 
                     style={styles.addButton}
                     onPress={() => navigation.navigate('NovoPedido')}>
@@ -473,7 +513,19 @@ export default function PedidosScreen({ navigation }) {
                 
                 onRefresh={handleRefresh}
                 refreshing={isRefreshing}
+
+                onEndReached={carregarMaisPedidos}
+                onEndReachedThreshold={0.5}
+                ListFooterComponent={carregandoMais ? (
+                    <ActivityIndicator style={styles.carregandoMais} color="#001A4E" />
+                ) : null}
                 
+                ListHeaderComponent={truncado ? (
+                    <Text style={styles.avisoTruncado}>
+                        Mostrando os {pedidos.length} pedidos mais recentes. Use os filtros para encontrar os demais.
+                    </Text>
+                ) : null}
+
                 ListEmptyComponent={() => (
                     <View style={styles.emptyContainer}>
                         <Text style={styles.emptyText}>Nenhum pedido encontrado com esse filtro.</Text>
@@ -791,6 +843,18 @@ const styles = StyleSheet.create({
         textAlign: 'center',
         lineHeight: 24,
     },
+    avisoTruncado: {
+        fontSize: 13,
+        color: '#8a5a00',
+        backgroundColor: '#fff4d6',
+        textAlign: 'center',
+        padding: 8,
+        marginBottom: 8,
+        borderRadius: 6,
+    },
+    carregandoMais: {
+        marginVertical: 16,
+    },
     filterContainer: {
         paddingHorizontal: 10,
         paddingBottom: 10,
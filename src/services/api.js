@@ -28,16 +28,36 @@ export const loginUser = async (email, senha) => {
     }
 };
 
-// LISTAR PEDIDOS RÁPIDO (SEM ITENS)
-export const getPedidosResumo = async () => {
+// LISTAR PEDIDOS RÁPIDO (paginado: passe o proximoCursor da página anterior)
+export const getPedidosResumo = async (cursor = null, tamanho = 50) => {
     try {
-        const response = await api.get('/pedidos');
-        return { success: true, data: response.data };
+        const params = { tamanho };
+        if (cursor) {
+            params.cursor = cursor;
+        }
+        const response = await api.get('/pedidos', { params });
+        return { success: true, data: response.data.pedidos, proximoCursor: response.data.proximoCursor };
     } catch (error) {
         return { success: false, message: "Erro ao buscar pedidos" };
     }
 };
 
+// SINCRONIZAÇÃO INCREMENTAL: passe o token da chamada anterior. Com recarregar = true, baixe a
+// lista inteira (getPedidosResumo) e continue com o token devolvido aqui.
+export const getAlteracoesPedidos = async (token = null) => {
+    try {
+        const params = {};
+        if (token) {
+            params.since = token;
+        }
+        const response = await api.get('/pedidos/changes', { params });
+        const { pedidos, excluidos, token: proximoToken, recarregar } = response.data;
+        return { success: true, pedidos, excluidos, token: proximoToken, recarregar };
+    } catch (error) {
+        return { success: false, message: "Erro ao sincronizar pedidos" };
+    }
+};
+
 // FUNÇÃO PARA LISTAR TODOS OS PEDIDOS (GET para /api/pedidos)
 export const getTodosPedidos = async (filters = {}) => {
     try {
@@ -66,7 +86,9 @@ export const getTodosPedidos = async (filters = {}) => {
         
         const response = await api.get(url); 
         
-        return { success: true, data: response.data }; 
+        // truncado: a busca passou do limite do servidor e só os pedidos mais recentes vieram
+        const truncado = response.headers['resultado-truncado'] === 'true';
+        return { success: true, data: response.data, truncado }; 
     } catch (error) {
         if (error.response) {
             console.error('Erro HTTP ao buscar pedidos:', error.response.data);
@@ -0,0 +1,65 @@
+package com.example.pedidos.Config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Contexto do Logback próprio do teste, com a amostragem e um appender em memória
+class ConsultaLentaLogConfigTest {
+
+	private final LoggerContext contexto = new LoggerContext();
+	private final ListAppender<ILoggingEvent> linhas = new ListAppender<>();
+
+	private Logger logger(String nome) {
+		Logger logger = contexto.getLogger(nome);
+		logger.addAppender(linhas);
+		return logger;
+	}
+
+	private void amostrar(int maximoPorJanela, Duration janela) {
+		ConsultaLentaLogConfig.Amostragem amostragem = new ConsultaLentaLogConfig.Amostragem(maximoPorJanela, janela);
+		amostragem.start();
+		contexto.addTurboFilter(amostragem);
+		linhas.start();
+	}
+
+	@Test
+	void registraNoMaximoOLimiteDaJanela() {
+		amostrar(3, Duration.ofHours(1));
+		Logger lento = logger(ConsultaLentaLogConfig.LOGGER_CONSULTA_LENTA);
+
+		for (int i = 0; i < 10; i++) {
+			if (lento.isInfoEnabled()) lento.info("Slow query took {} milliseconds", 250 + i);
+		}
+
+		assertEquals(3, linhas.list.size());
+	}
+
+	@Test
+	void novaJanelaVoltaARegistrar() throws InterruptedException {
+		amostrar(2, Duration.ofMillis(50));
+		Logger lento = logger(ConsultaLentaLogConfig.LOGGER_CONSULTA_LENTA);
+
+		for (int i = 0; i < 5; i++) lento.info("Slow query");
+		Thread.sleep(100);
+		for (int i = 0; i < 5; i++) lento.info("Slow query");
+
+		assertEquals(4, linhas.list.size());
+	}
+
+	@Test
+	void outrosLoggersNaoSaoAmostrados() {
+		amostrar(1, Duration.ofHours(1));
+		Logger sql = logger("org.hibernate.SQL");
+
+		for (int i = 0; i < 5; i++) sql.info("select 1");
+
+		assertEquals(5, linhas.list.size());
+	}
+}
@@ -0,0 +1,150 @@
+package com.example.pedidos.Config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Primário e réplica como dois bancos H2 em memória, cada um com uma linha dizendo quem é
+class DataSourceRoteadoTest {
+
+	private final EmbeddedDatabase primario = banco("primario");
+	private final EmbeddedDatabase replica = banco("replica");
+
+	@AfterEach
+	void fechar() {
+		DataSourceRoteado.desvincular();
+		primario.shutdown();
+		replica.shutdown();
+	}
+
+	@Test
+	void leituraReadOnlyVaiParaReplicaEEscritaParaPrimario() {
+		JdbcTemplate jdbc = new JdbcTemplate(roteado(Duration.ZERO));
+		TransactionTemplate escrita = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+		TransactionTemplate leitura = new TransactionTemplate(escrita.getTransactionManager());
+		leitura.setReadOnly(true);
+
+		assertEquals("replica", leitura.execute(s -> origem(jdbc)));
+		assertEquals("primario", escrita.execute(s -> origem(jdbc)));
+		assertEquals("primario", origem(jdbc));
+
+		escrita.executeWithoutResult(s -> jdbc.update("UPDATE origem SET nome = 'primario-alterado'"));
+		assertEquals("replica", leitura.execute(s -> origem(jdbc)));
+	}
+
+	@Test
+	void leituraLogoAposEscritaFicaNoPrimario() {
+		JdbcTemplate jdbc = new JdbcTemplate(roteado(Duration.ofMinutes(1)));
+		TransactionTemplate escrita = new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource()));
+		TransactionTemplate leitura = new TransactionTemplate(escrita.getTransactionManager());
+		leitura.setReadOnly(true);
+		Chamador chamador = new Chamador();
+		DataSourceRoteado.vincular(chamador);
+
+		assertEquals("replica", leitura.execute(s -> origem(jdbc)));
+
+		// Escrita desfeita não conta
+		escrita.executeWithoutResult(s -> {
+			jdbc.update("UPDATE origem SET nome = 'desfeito'");
+			s.setRollbackOnly();
+		});
+		assertEquals("replica", leitura.execute(s -> origem(jdbc)));
+
+		escrita.executeWithoutResult(s -> jdbc.update("UPDATE origem SET nome = 'primario-alterado'"));
+		assertEquals("primario-alterado", leitura.execute(s -> origem(jdbc)));
+		assertTrue(chamador.primarioAte > System.currentTimeMillis());
+
+		// Outro chamador (ou nenhum) continua na réplica
+		DataSourceRoteado.vincular(new Chamador());
+		assertEquals("replica", leitura.execute(s -> origem(jdbc)));
+		DataSourceRoteado.desvincular();
+		assertEquals("replica", leitura.execute(s -> origem(jdbc)));
+	}
+
+	// Caminho de produção: JpaTransactionManager com o Hibernate sobre o DataSource roteado
+	@Test
+	void transacaoJpaReadOnlyLeDaReplicaSemGuardarNoCache() {
+		LocalContainerEntityManagerFactoryBean fabrica = new LocalContainerEntityManagerFactoryBean();
+		fabrica.setDataSource(roteado(Duration.ofMinutes(1)));
+		fabrica.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		fabrica.setPackagesToScan("com.example.pedidos.Config.semEntidades");
+		fabrica.afterPropertiesSet();
+		EntityManagerFactory emf = fabrica.getObject();
+		try {
+			EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(emf);
+			TransactionTemplate escrita = new TransactionTemplate(new JpaTransactionManager(emf));
+			TransactionTemplate leitura = new TransactionTemplate(escrita.getTransactionManager());
+			leitura.setReadOnly(true);
+			DataSourceRoteado.vincular(new Chamador());
+
+			assertEquals("replica", leitura.execute(s -> origem(em)));
+			assertEquals(CacheMode.GET, leitura.execute(s -> {
+				origem(em);
+				return em.unwrap(Session.class).getCacheMode();
+			}));
+			assertEquals("primario", escrita.execute(s -> origem(em)));
+			assertEquals(CacheMode.NORMAL, escrita.execute(s -> em.unwrap(Session.class).getCacheMode()));
+
+			escrita.executeWithoutResult(s -> em.createNativeQuery("UPDATE origem SET nome = 'primario-alterado'").executeUpdate());
+			assertEquals("primario-alterado", leitura.execute(s -> origem(em)));
+		} finally {
+			emf.close();
+		}
+	}
+
+	private static String origem(EntityManager em) {
+		return (String) em.createNativeQuery("SELECT nome FROM origem").getSingleResult();
+	}
+
+	private static class Chamador implements DataSourceRoteado.Chamador {
+		long primarioAte;
+
+		@Override
+		public long primarioAte() {
+			return primarioAte;
+		}
+
+		@Override
+		public void gravou(long primarioAte) {
+			this.primarioAte = primarioAte;
+		}
+	}
+
+	private LazyConnectionDataSourceProxy roteado(Duration aderencia) {
+		return new LazyConnectionDataSourceProxy(new DataSourceRoteado(primario, replica, aderencia));
+	}
+
+	private static String origem(JdbcTemplate jdbc) {
+		return jdbc.queryForObject("SELECT nome FROM origem", String.class);
+	}
+
+	private static EmbeddedDatabase banco(String nome) {
+		EmbeddedDatabase banco = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName(nome + "-" + System.nanoTime())
+				.build();
+		JdbcTemplate jdbc = new JdbcTemplate(banco);
+		jdbc.execute("CREATE TABLE origem (nome VARCHAR(40))");
+		jdbc.update("INSERT INTO origem VALUES (?)", nome);
+		return banco;
+	}
+}
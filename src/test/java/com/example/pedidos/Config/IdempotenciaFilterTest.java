@@ -0,0 +1,158 @@
+package com.example.pedidos.Config;
+
+import com.example.pedidos.Services.IdempotenciaService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Idempotency-Key com a tabela chave_idempotencia num H2; o "controller" é um FilterChain que conta
+// as execuções e responde 201 com o id gerado
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:idempotencia;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+class IdempotenciaFilterTest {
+
+	private static final String CORPO = "{\"nome\":\"Ana Souza\",\"telefone\":\"11988887777\"}";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private IdempotenciaService service;
+	private IdempotenciaFilter filter;
+	private final AtomicInteger execucoes = new AtomicInteger();
+
+	private final FilterChain cadastro = (request, response) -> {
+		long id = execucoes.incrementAndGet();
+		HttpServletResponse http = (HttpServletResponse) response;
+		http.setStatus(HttpServletResponse.SC_CREATED);
+		http.setHeader(HttpHeaders.LOCATION, "/api/pedidos/" + id);
+		http.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		http.getWriter().write("{\"id\":" + id + "}");
+	};
+
+	@BeforeEach
+	void montar() {
+		service = novoService(Duration.ofMinutes(1));
+		filter = new IdempotenciaFilter(service);
+	}
+
+	@Test
+	void repeticaoDevolveARespostaOriginalSemExecutarDeNovo() throws Exception {
+		MockHttpServletResponse primeira = enviar("chave-1", CORPO, cadastro);
+		MockHttpServletResponse repeticao = enviar("chave-1", CORPO, cadastro);
+
+		assertEquals(1, execucoes.get());
+		assertEquals(201, primeira.getStatus());
+		assertNull(primeira.getHeader("Idempotent-Replayed"));
+		assertEquals(201, repeticao.getStatus());
+		assertEquals("true", repeticao.getHeader("Idempotent-Replayed"));
+		assertEquals("/api/pedidos/1", repeticao.getHeader(HttpHeaders.LOCATION));
+		assertEquals(MediaType.APPLICATION_JSON_VALUE, repeticao.getContentType());
+		assertEquals("{\"id\":1}", repeticao.getContentAsString());
+	}
+
+	@Test
+	void repeticaoDepoisDeReinicioVemDoBanco() throws Exception {
+		enviar("chave-1", CORPO, cadastro);
+
+		filter = new IdempotenciaFilter(novoService(Duration.ofMinutes(1)));
+		MockHttpServletResponse repeticao = enviar("chave-1", CORPO, cadastro);
+
+		assertEquals(1, execucoes.get());
+		assertEquals("true", repeticao.getHeader("Idempotent-Replayed"));
+		assertEquals("{\"id\":1}", repeticao.getContentAsString());
+	}
+
+	@Test
+	void mesmaChaveComOutroCorpoE422() throws Exception {
+		enviar("chave-1", CORPO, cadastro);
+
+		MockHttpServletResponse outra = enviar("chave-1", CORPO.replace("Ana", "Bia"), cadastro);
+
+		assertEquals(422, outra.getStatus());
+		assertEquals(1, execucoes.get());
+	}
+
+	@Test
+	void mesmaChaveEmAndamentoE409() throws Exception {
+		MockHttpServletResponse[] concorrente = new MockHttpServletResponse[1];
+		// A segunda tentativa chega enquanto a primeira ainda está no controller
+		FilterChain lento = (request, response) -> {
+			concorrente[0] = enviar("chave-1", CORPO, cadastro);
+			cadastro.doFilter(request, response);
+		};
+
+		MockHttpServletResponse primeira = enviar("chave-1", CORPO, lento);
+
+		assertEquals(409, concorrente[0].getStatus());
+		assertEquals(201, primeira.getStatus());
+		assertEquals(1, execucoes.get());
+	}
+
+	@Test
+	void erroDoServidorLiberaAChave() throws Exception {
+		FilterChain falha = (request, response) -> ((HttpServletResponse) response).setStatus(503);
+
+		assertEquals(503, enviar("chave-1", CORPO, falha).getStatus());
+		MockHttpServletResponse novaTentativa = enviar("chave-1", CORPO, cadastro);
+
+		assertEquals(201, novaTentativa.getStatus());
+		assertNull(novaTentativa.getHeader("Idempotent-Replayed"));
+		assertEquals(1, execucoes.get());
+	}
+
+	@Test
+	void reservaVencidaEAssumidaPorUmaSoTentativa() {
+		byte[] hash = "hash".getBytes(StandardCharsets.UTF_8);
+		assertEquals(IdempotenciaService.Situacao.NOVA, service.reservar("chave-1", hash).situacao());
+		assertEquals(IdempotenciaService.Situacao.EM_ANDAMENTO, service.reservar("chave-1", hash).situacao());
+
+		// A instância que reservou caiu: passado o prazo, a próxima tentativa fica com a chave
+		jdbcTemplate.update("UPDATE chave_idempotencia SET reservado_em = ? WHERE chave = ?",
+				LocalDateTime.now().minusMinutes(5), "chave-1");
+
+		assertEquals(IdempotenciaService.Situacao.NOVA, service.reservar("chave-1", hash).situacao());
+		assertEquals(IdempotenciaService.Situacao.EM_ANDAMENTO, service.reservar("chave-1", hash).situacao());
+	}
+
+	private IdempotenciaService novoService(Duration prazoReserva) {
+		return new IdempotenciaService(jdbcTemplate, 100, Duration.ofHours(24), prazoReserva);
+	}
+
+	private MockHttpServletResponse enviar(String chave, String corpo, FilterChain chain) throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/pedidos");
+		request.addHeader(IdempotenciaFilter.CABECALHO, chave);
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+}
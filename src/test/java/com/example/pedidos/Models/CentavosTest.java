@@ -0,0 +1,88 @@
+package com.example.pedidos.Models;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CentavosTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	static class Valor {
+		@Centavos.EmReais
+		public Long valor;
+	}
+
+	@Test
+	void deReaisAceitaCasasDecimaisVariadas() {
+		assertEquals(5390, Centavos.deReais("53.90"));
+		assertEquals(5390, Centavos.deReais("53.9"));
+		assertEquals(5300, Centavos.deReais(" 53 "));
+		assertEquals(-150, Centavos.deReais(new BigDecimal("-1.5")));
+	}
+
+	@Test
+	void deReaisArredondaMeioCentavoParaCima() {
+		assertEquals(1, Centavos.deReais("0.005"));
+		assertEquals(0, Centavos.deReais("0.004"));
+		assertEquals(5391, Centavos.deReais("53.905"));
+		assertEquals(-1, Centavos.deReais("-0.005"));
+	}
+
+	@Test
+	void deReaisForaDoLongFalha() {
+		assertThrows(ArithmeticException.class, () -> Centavos.deReais("92233720368547758.08"));
+		assertEquals(Long.MAX_VALUE, Centavos.deReais("92233720368547758.07"));
+	}
+
+	@Test
+	void formatarSempreComDuasCasas() {
+		assertEquals("53,90", Centavos.formatar(5390, ','));
+		assertEquals("53.90", Centavos.formatar(5390, '.'));
+		assertEquals("0,05", Centavos.formatar(5, ','));
+		assertEquals("0,00", Centavos.formatar(0, ','));
+		assertEquals("-1,50", Centavos.formatar(-150, ','));
+	}
+
+	@Test
+	void serializaEmReais() throws Exception {
+		Valor v = new Valor();
+		v.valor = 5390L;
+
+		assertEquals("{\"valor\":53.90}", mapper.writeValueAsString(v));
+	}
+
+	@Test
+	void desserializaNumeroETextoComVirgula() throws Exception {
+		assertEquals(5390L, ler("53.9"));
+		assertEquals(5300L, ler("53"));
+		assertEquals(5390L, ler("\"53,90\""));
+		assertEquals(5390L, ler("\" 53.90 \""));
+		assertEquals(1L, ler("0.005"));
+	}
+
+	@Test
+	void desserializaNuloEVazioComoZero() throws Exception {
+		assertEquals(0L, ler("null"));
+		assertEquals(0L, ler("\"\""));
+	}
+
+	@Test
+	void desserializacaoRejeitaTextoInvalidoEEstouro() {
+		assertThrows(JsonMappingException.class, () -> ler("\"abc\""));
+		assertThrows(JsonMappingException.class, () -> ler("true"));
+		// Estouro do long vira erro de leitura (400 na API), com a causa preservada
+		JsonMappingException estouro = assertThrows(JsonMappingException.class, () -> ler("1e30"));
+		assertInstanceOf(ArithmeticException.class, estouro.getCause());
+	}
+
+	private Long ler(String json) throws Exception {
+		return mapper.readValue("{\"valor\":" + json + "}", Valor.class).valor;
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.pedidos.Models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TelefonesTest {
+
+	@Test
+	void formatosDoMesmoCelularViramAMesmaChave() {
+		for (String telefone : new String[]{"11988887777", "(11) 98888-7777", "11 98888 7777",
+				"+55 11 98888-7777", "5511988887777", "0055 11 98888-7777", "011 98888-7777"}) {
+			assertEquals("11988887777", Telefones.normalizar(telefone), telefone);
+		}
+	}
+
+	@Test
+	void formatosDoMesmoFixoViramAMesmaChave() {
+		for (String telefone : new String[]{"(11) 3333-4444", "+55 11 3333-4444", "011 3333-4444"}) {
+			assertEquals("1133334444", Telefones.normalizar(telefone), telefone);
+		}
+	}
+
+	@Test
+	void ddd55NaoEhConfundidoComCodigoDoPais() {
+		assertEquals("55988887777", Telefones.normalizar("(55) 98888-7777"));
+		assertEquals("5533334444", Telefones.normalizar("(55) 3333-4444"));
+		assertEquals("5533334444", Telefones.normalizar("+55 55 3333-4444"));
+	}
+
+	@Test
+	void trechosCurtosSoPerdemOsNaoDigitos() {
+		assertEquals("5511", Telefones.normalizar("55 11"));
+		assertEquals("0800", Telefones.normalizar("0800"));
+		assertEquals("98888", Telefones.normalizar("98888-"));
+	}
+
+	@Test
+	void nuloEVazio() {
+		assertNull(Telefones.normalizar(null));
+		assertEquals("", Telefones.normalizar(""));
+		assertEquals("", Telefones.normalizar("sem telefone"));
+	}
+}
@@ -0,0 +1,140 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.AlteracoesPedidosDTO;
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+import com.example.pedidos.Repositories.ClienteRepository;
+import com.example.pedidos.Repositories.PedidoExcluidoRepository;
+import com.example.pedidos.Repositories.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Feed de GET /api/pedidos/changes sem janela de tolerância: só entra o que foi gravado depois do
+// token. Ana e Bia têm um pedido cada, gravados antes do token.
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:alteracoes_pedidos;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+class AlteracoesPedidosTest {
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private PedidoRepository pedidoRepository;
+
+	@Autowired
+	private PedidoExcluidoRepository pedidoExcluidoRepository;
+
+	private PedidoService service;
+	private Cliente ana;
+	private Pedido pedidoAna;
+	private Pedido pedidoBia;
+	private String token;
+
+	@BeforeEach
+	void gravarPedidos() throws InterruptedException {
+		ana = clienteRepository.save(new Cliente(null, "Ana Souza", "11988887777", "Rua A, 1", null));
+		Cliente bia = clienteRepository.save(new Cliente(null, "Bia Lima", "11977776666", "Rua B, 2", null));
+		pedidoAna = pedidoRepository.save(pedido(ana));
+		pedidoBia = pedidoRepository.save(pedido(bia));
+		pedidoRepository.flush();
+
+		service = new PedidoService(pedidoRepository, clienteRepository, mock(ClienteService.class),
+				mock(IndiceBuscaCliente.class), mock(IndiceProdutosPedido.class), mock(ProducaoService.class),
+				pedidoExcluidoRepository, mock(VersaoPedidoCache.class), mock(ApplicationEventPublisher.class),
+				Duration.ofDays(30), Duration.ZERO);
+
+		Thread.sleep(5);
+		token = service.listarAlteracoes(null).token();
+		Thread.sleep(5);
+	}
+
+	@Test
+	void semTokenPedeRecarga() {
+		AlteracoesPedidosDTO alteracoes = service.listarAlteracoes(null);
+
+		assertTrue(alteracoes.recarregar());
+		assertTrue(alteracoes.pedidos().isEmpty());
+		assertFalse(alteracoes.token().isBlank());
+	}
+
+	@Test
+	void nadaGravadoDepoisDoTokenVemVazio() {
+		AlteracoesPedidosDTO alteracoes = service.listarAlteracoes(token);
+
+		assertFalse(alteracoes.recarregar());
+		assertTrue(alteracoes.pedidos().isEmpty());
+		assertTrue(alteracoes.excluidos().isEmpty());
+	}
+
+	@Test
+	void pedidoNovoEClienteAlteradoEntramComOsItens() {
+		Pedido novo = pedidoRepository.save(pedido(ana));
+		Cliente bia = pedidoBia.getCliente();
+		bia.setEndereco("Rua C, 3");
+		clienteRepository.saveAndFlush(bia);
+
+		AlteracoesPedidosDTO alteracoes = service.listarAlteracoes(token);
+
+		assertFalse(alteracoes.recarregar());
+		assertEquals(List.of(pedidoBia.getId(), novo.getId()), alteracoes.pedidos().stream().map(p -> p.id).sorted().toList());
+		assertEquals("Rua C, 3", alteracoes.pedidos().stream()
+				.filter(p -> p.id.equals(pedidoBia.getId())).findFirst().orElseThrow().endereco);
+		assertEquals(1, alteracoes.pedidos().get(0).itens.size());
+	}
+
+	@Test
+	void pedidoExcluidoVemComoIdExcluido() {
+		service.excluirPedido(pedidoAna.getId());
+
+		AlteracoesPedidosDTO alteracoes = service.listarAlteracoes(token);
+
+		assertEquals(List.of(pedidoAna.getId()), alteracoes.excluidos());
+		assertTrue(alteracoes.pedidos().isEmpty());
+	}
+
+	@Test
+	void tokenAlemDaRetencaoPedeRecarga() {
+		String antigo = new TokenAlteracoes(LocalDateTime.now().minusDays(31)).codificar();
+
+		assertTrue(service.listarAlteracoes(antigo).recarregar());
+	}
+
+	@Test
+	void tokenInvalidoViraIllegalArgument() {
+		assertThrows(IllegalArgumentException.class, () -> service.listarAlteracoes("nao-e-token"));
+	}
+
+	private static Pedido pedido(Cliente cliente) {
+		Pedido pedido = new Pedido();
+		pedido.setCliente(cliente);
+		PedidoItem item = new PedidoItem(Produto.FILE, 1);
+		item.setPedido(pedido);
+		pedido.getItens().add(item);
+		return pedido;
+	}
+}
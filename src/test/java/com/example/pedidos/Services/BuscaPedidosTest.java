@@ -0,0 +1,102 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.ResultadoBuscaDTO;
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Repositories.ClienteRepository;
+import com.example.pedidos.Repositories.PedidoExcluidoRepository;
+import com.example.pedidos.Repositories.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Limite de GET /api/pedidos/buscar: acima de PedidoService.LIMITE_BUSCA o resultado vem cortado e
+// marcado. O índice de clientes é um mock fora do ar (null), então o filtro por nome vai ao banco.
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:busca_pedidos;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+class BuscaPedidosTest {
+
+	private static final LocalDateTime PRIMEIRA_ENTREGA = LocalDateTime.of(2026, 1, 1, 8, 0);
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private PedidoRepository pedidoRepository;
+
+	private PedidoService service;
+
+	@BeforeEach
+	void gravarPedidos() {
+		Cliente ana = clienteRepository.save(new Cliente(null, "Ana Souza", "11988887777", "Rua A, 1", null));
+		Cliente bia = clienteRepository.save(new Cliente(null, "Bia Lima", "11977776666", "Rua B, 2", null));
+
+		// Um pedido a mais que o limite, um por minuto; os três primeiros são da Bia
+		List<Pedido> pedidos = new ArrayList<>();
+		for (int i = 0; i <= PedidoService.LIMITE_BUSCA; i++) {
+			Pedido pedido = new Pedido();
+			pedido.setCliente(i < 3 ? bia : ana);
+			pedido.setDataEntrega(PRIMEIRA_ENTREGA.plusMinutes(i));
+			pedidos.add(pedido);
+		}
+		pedidoRepository.saveAll(pedidos);
+		pedidoRepository.flush();
+
+		IndiceBuscaCliente indiceForaDoAr = mock(IndiceBuscaCliente.class);
+		when(indiceForaDoAr.buscar(any(), any(), anyInt())).thenReturn(null);
+		service = new PedidoService(pedidoRepository, clienteRepository, mock(ClienteService.class),
+				indiceForaDoAr, mock(IndiceProdutosPedido.class), mock(ProducaoService.class),
+				mock(PedidoExcluidoRepository.class), mock(VersaoPedidoCache.class),
+				mock(ApplicationEventPublisher.class), Duration.ofDays(30), Duration.ofMinutes(1));
+	}
+
+	@Test
+	void semFiltroPassandoDoLimiteVemCortadoEMarcado() {
+		ResultadoBuscaDTO resultado = service.buscarPedidosComFiltrosDTO(null, null, null, null, null, null);
+
+		assertTrue(resultado.truncado());
+		assertEquals(PedidoService.LIMITE_BUSCA, resultado.pedidos().size());
+	}
+
+	@Test
+	void exatamenteNoLimiteNaoEstaCortado() {
+		LocalDateTime fim = PRIMEIRA_ENTREGA.plusMinutes(PedidoService.LIMITE_BUSCA - 1);
+		ResultadoBuscaDTO resultado = service.buscarPedidosComFiltrosDTO(null, null, null, null, PRIMEIRA_ENTREGA, fim);
+
+		assertFalse(resultado.truncado());
+		assertEquals(PedidoService.LIMITE_BUSCA, resultado.pedidos().size());
+	}
+
+	@Test
+	void filtroAbaixoDoLimiteNaoEstaCortado() {
+		ResultadoBuscaDTO resultado = service.buscarPedidosComFiltrosDTO("bia", null, null, null, null, null);
+
+		assertFalse(resultado.truncado());
+		assertEquals(3, resultado.pedidos().size());
+	}
+}
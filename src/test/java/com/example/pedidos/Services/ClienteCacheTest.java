@@ -0,0 +1,86 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Repositories.ClienteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClienteCacheTest {
+
+	private final ClienteCache cache = new ClienteCache(1000, Duration.ofMinutes(30));
+
+	@Test
+	void gravadoEEncontradoPorQualquerFormatoDoTelefone() {
+		cache.aoAlterarCliente(ClienteAlteradoEvent.gravado(ana(), null));
+
+		assertEquals(10L, cache.buscar("(11) 98888-7777").getId());
+		assertEquals("Ana Souza", cache.buscar("+55 11 98888-7777").getNome());
+		assertNull(cache.buscar("11977776666"));
+		assertNull(cache.buscar(""));
+	}
+
+	@Test
+	void devolveUmaCopiaNuncaAEntidadeGuardada() {
+		Cliente gravado = ana();
+		cache.aoAlterarCliente(ClienteAlteradoEvent.gravado(gravado, null));
+
+		Cliente encontrado = cache.buscar("11988887777");
+		encontrado.setNome("Outro nome");
+
+		assertNotSame(gravado, encontrado);
+		assertEquals("Ana Souza", cache.buscar("11988887777").getNome());
+	}
+
+	@Test
+	void trocaDeTelefoneRemoveOAnterior() {
+		cache.aoAlterarCliente(ClienteAlteradoEvent.gravado(ana(), null));
+
+		Cliente novoTelefone = new Cliente(10L, "Ana Souza", "11977776666", "Rua A, 1", null);
+		cache.aoAlterarCliente(ClienteAlteradoEvent.gravado(novoTelefone, "11988887777"));
+
+		assertNull(cache.buscar("11988887777"));
+		assertEquals(10L, cache.buscar("11977776666").getId());
+	}
+
+	@Test
+	void excluidoSaiDoCache() {
+		cache.aoAlterarCliente(ClienteAlteradoEvent.gravado(ana(), null));
+
+		cache.aoAlterarCliente(ClienteAlteradoEvent.excluido(10L, "(11) 98888-7777"));
+
+		assertNull(cache.buscar("11988887777"));
+	}
+
+	@Test
+	void clienteRecorrenteComOsMesmosDadosNaoVaiAoUpsert() {
+		ClienteRepository repository = mock(ClienteRepository.class);
+		when(repository.gravarPorTelefone(any())).thenReturn(10L);
+		ClienteService service = new ClienteService(repository, cache, mock(ApplicationEventPublisher.class));
+		cache.aoAlterarCliente(ClienteAlteradoEvent.gravado(ana(), null));
+
+		service.resolverPorTelefone(new Cliente(null, "Ana Souza", "(11) 98888-7777", "Rua A, 1", null));
+		verify(repository, never()).gravarPorTelefone(any());
+		verify(repository).getReferenceById(10L);
+
+		// Endereço novo: o upsert grava a alteração
+		service.resolverPorTelefone(new Cliente(null, "Ana Souza", "11988887777", "Rua B, 2", null));
+		verify(repository).gravarPorTelefone(any());
+
+		assertEquals(2, cache.estatisticas().acertos);
+	}
+
+	private static Cliente ana() {
+		return new Cliente(10L, "Ana Souza", "11988887777", "Rua A, 1", null);
+	}
+}
@@ -0,0 +1,49 @@
+package com.example.pedidos.Services;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CursorPedidoTest {
+
+	@Test
+	void idaEVoltaComData() {
+		CursorPedido cursor = new CursorPedido(LocalDateTime.of(2026, 11, 20, 10, 30, 15, 123_000_000), 42L);
+
+		assertEquals(cursor, CursorPedido.decodificar(cursor.codificar()));
+	}
+
+	@Test
+	void idaEVoltaSemData() {
+		CursorPedido cursor = new CursorPedido(null, 7L);
+
+		assertEquals(cursor, CursorPedido.decodificar(cursor.codificar()));
+	}
+
+	@Test
+	void tokenSeguroParaQueryString() {
+		String token = new CursorPedido(LocalDateTime.of(2026, 1, 2, 3, 4), Long.MAX_VALUE).codificar();
+
+		assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+	}
+
+	@Test
+	void tokenInvalidoViraIllegalArgument() {
+		for (String token : new String[]{"", "!!!", codificar("sem-separador"), codificar("2026-11-20T10:00|abc"),
+				codificar("ontem|1"), codificar("|1")}) {
+			IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+					() -> CursorPedido.decodificar(token), token);
+			assertEquals("Cursor de paginação inválido.", e.getMessage());
+		}
+	}
+
+	private static String codificar(String valor) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,94 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiferencaItensTest {
+
+	@Test
+	void itensIguaisNaoGeramDiferenca() {
+		List<PedidoItem> gravados = List.of(item(Produto.FILE, 2), item(Produto.TEMPERO, 1));
+
+		DiferencaItens diferenca = DiferencaItens.calcular(gravados,
+				List.of(item(Produto.TEMPERO, 1), item(Produto.FILE, 2)));
+
+		assertTrue(diferenca.isVazia());
+	}
+
+	@Test
+	void produtoForaDaEdicaoEhRemovido() {
+		PedidoItem tempero = item(Produto.TEMPERO, 1);
+
+		DiferencaItens diferenca = DiferencaItens.calcular(List.of(item(Produto.FILE, 2), tempero),
+				List.of(item(Produto.FILE, 2)));
+
+		assertEquals(List.of(tempero), diferenca.removidos());
+		assertTrue(diferenca.inseridos().isEmpty());
+		assertTrue(diferenca.alterados().isEmpty());
+	}
+
+	@Test
+	void produtoZeradoEhRemovidoENaoInserido() {
+		PedidoItem file = item(Produto.FILE, 2);
+
+		DiferencaItens diferenca = DiferencaItens.calcular(List.of(file),
+				List.of(item(Produto.FILE, 0), item(Produto.COMBO, 0)));
+
+		assertEquals(List.of(file), diferenca.removidos());
+		assertTrue(diferenca.inseridos().isEmpty());
+		assertTrue(diferenca.alterados().isEmpty());
+	}
+
+	@Test
+	void produtoRepetidoNoPedidoGravadoFicaSoUmaVez() {
+		PedidoItem primeiro = item(Produto.FILE, 2);
+		PedidoItem repetido = item(Produto.FILE, 3);
+
+		DiferencaItens diferenca = DiferencaItens.calcular(List.of(primeiro, repetido),
+				List.of(item(Produto.FILE, 2)));
+
+		assertEquals(List.of(repetido), diferenca.removidos());
+		assertTrue(diferenca.alterados().isEmpty());
+		assertTrue(diferenca.inseridos().isEmpty());
+	}
+
+	@Test
+	void produtoRepetidoNaEdicaoValeOUltimo() {
+		PedidoItem file = item(Produto.FILE, 2);
+
+		DiferencaItens diferenca = DiferencaItens.calcular(List.of(file),
+				List.of(item(Produto.FILE, 1), item(Produto.FILE, 5)));
+
+		assertEquals(1, diferenca.alterados().size());
+		assertSame(file, diferenca.alterados().get(0).item());
+		assertEquals(5, diferenca.alterados().get(0).quantidade());
+		assertTrue(diferenca.removidos().isEmpty());
+		assertTrue(diferenca.inseridos().isEmpty());
+	}
+
+	@Test
+	void quantidadeNovaEProdutoNovo() {
+		PedidoItem file = item(Produto.FILE, 2);
+		PedidoItem combo = item(Produto.COMBO, 1);
+
+		DiferencaItens diferenca = DiferencaItens.calcular(List.of(file, item(Produto.TEMPERO, 1)),
+				List.of(item(Produto.FILE, 4), item(Produto.TEMPERO, 1), combo));
+
+		assertEquals(1, diferenca.alterados().size());
+		assertSame(file, diferenca.alterados().get(0).item());
+		assertEquals(4, diferenca.alterados().get(0).quantidade());
+		assertEquals(List.of(combo), diferenca.inseridos());
+		assertTrue(diferenca.removidos().isEmpty());
+	}
+
+	private static PedidoItem item(Produto produto, int quantidade) {
+		return new PedidoItem(produto, quantidade);
+	}
+}
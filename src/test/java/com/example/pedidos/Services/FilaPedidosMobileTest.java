@@ -0,0 +1,137 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.PedidoDTO;
+import com.example.pedidos.DTO.ResultadoLoteDTO;
+import com.example.pedidos.DTO.SituacaoPedidoMobileDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Diário da fila do mobile: o que ficou sem resultado volta para a fila na subida, e a compactação
+// deixa no diário só os recebimentos pendentes
+class FilaPedidosMobileTest {
+
+	private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+	@TempDir
+	Path pasta;
+
+	private final List<FilaPedidosMobile> filas = new ArrayList<>();
+	// Nomes dos pedidos enviados ao PedidoLoteService, de todas as filas do teste
+	private final List<String> enviados = Collections.synchronizedList(new ArrayList<>());
+
+	@AfterEach
+	void encerrar() throws Exception {
+		for (FilaPedidosMobile fila : filas) fila.encerrar();
+	}
+
+	@Test
+	void pendentesDoDiarioVoltamParaAFilaNaSubida() throws Exception {
+		Path diario = pasta.resolve("diario.ndjson");
+		FilaPedidosMobile foraDoAr = iniciar(diario, Long.MAX_VALUE, dto -> true);
+		String ana = foraDoAr.receber(pedido("Ana")).id();
+		String bia = foraDoAr.receber(pedido("Bia")).id();
+		aguardar(() -> enviados.contains("Bia"), "tentativa de gravar o lote");
+		foraDoAr.encerrar();
+		filas.remove(foraDoAr);
+		enviados.clear();
+
+		FilaPedidosMobile novaSubida = iniciar(diario, Long.MAX_VALUE, dto -> false);
+		aguardar(() -> novaSubida.getPendentes() == 0, "pedidos do diário gravados");
+
+		assertEquals(List.of("Ana", "Bia"), enviados);
+		assertEquals(SituacaoPedidoMobileDTO.Estado.GRAVADO, novaSubida.situacao(ana).estado());
+		assertEquals(SituacaoPedidoMobileDTO.Estado.GRAVADO, novaSubida.situacao(bia).estado());
+		// Tudo com resultado: o diário recomeça vazio
+		assertEquals(0, Files.size(diario));
+	}
+
+	@Test
+	void diarioAcimaDoLimiteFicaSoComOsPendentes() throws Exception {
+		Path diario = pasta.resolve("diario.ndjson");
+		FilaPedidosMobile fila = iniciar(diario, 256, dto -> dto.nome.equals("Pendente"));
+		String pendente = fila.receber(pedido("Pendente")).id();
+		for (int i = 0; i < 30; i++) fila.receber(pedido("Cliente " + i));
+
+		aguardar(() -> fila.getPendentes() == 1 && linhas(diario).size() == 1, "diário compactado");
+		assertTrue(linhas(diario).get(0).contains(pendente));
+		fila.encerrar();
+		filas.remove(fila);
+		enviados.clear();
+
+		FilaPedidosMobile novaSubida = iniciar(diario, 256, dto -> false);
+		aguardar(() -> novaSubida.getPendentes() == 0, "pedido pendente gravado");
+
+		assertEquals(List.of("Pendente"), enviados);
+		assertEquals(SituacaoPedidoMobileDTO.Estado.GRAVADO, novaSubida.situacao(pendente).estado());
+	}
+
+	// PedidoLoteService falso: pedidos em que `bancoFalha` é verdadeiro voltam com falha temporária,
+	// os outros são gravados
+	private FilaPedidosMobile iniciar(Path diario, long tamanhoMaximo, Predicate<PedidoDTO> bancoFalha) throws IOException {
+		PedidoLoteService lote = mock(PedidoLoteService.class);
+		when(lote.cadastrarLote(any())).thenAnswer(chamada -> {
+			List<PedidoDTO> dtos = chamada.getArgument(0);
+			ResultadoLoteDTO resultado = new ResultadoLoteDTO(dtos.size());
+			for (int i = 0; i < dtos.size(); i++) {
+				enviados.add(dtos.get(i).nome);
+				if (bancoFalha.test(dtos.get(i))) resultado.erro(i, "Communications link failure", true);
+				else resultado.gravado(i, (long) i + 1);
+			}
+			return resultado;
+		});
+		FilaPedidosMobile fila = new FilaPedidosMobile(mock(PedidoService.class), lote, OBJECT_MAPPER,
+				true, diario, tamanhoMaximo, Duration.ofHours(1));
+		fila.iniciar();
+		filas.add(fila);
+		return fila;
+	}
+
+	private static PedidoDTO pedido(String nome) {
+		PedidoDTO.ItemDTO item = new PedidoDTO.ItemDTO();
+		item.produto = "FILE";
+		item.quantidade = 1;
+
+		PedidoDTO dto = new PedidoDTO();
+		dto.nome = nome;
+		dto.telefone = "11988887777";
+		dto.endereco = "Rua A, 1";
+		dto.itens = List.of(item);
+		return dto;
+	}
+
+	private static List<String> linhas(Path diario) {
+		try {
+			return Files.readAllLines(diario).stream().filter(linha -> !linha.isBlank()).toList();
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static void aguardar(BooleanSupplier condicao, String descricao) throws InterruptedException {
+		long limite = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+		while (!condicao.getAsBoolean()) {
+			if (System.nanoTime() > limite) fail("Tempo esgotado esperando: " + descricao);
+			Thread.sleep(20);
+		}
+	}
+}
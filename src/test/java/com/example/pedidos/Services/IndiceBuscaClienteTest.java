@@ -0,0 +1,105 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.Telefones;
+import com.example.pedidos.Repositories.ClienteRepository;
+import com.example.pedidos.Repositories.PedidoRepository;
+import com.example.pedidos.Repositories.PedidoSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// O índice e o LIKE de reserva (índice fora do ar ou termo pouco seletivo) precisam achar os mesmos clientes
+// (H2 no modo MySQL do perfil perf; o validador é usado pelo upsert de ClienteRepository)
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:indice_busca;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+class IndiceBuscaClienteTest {
+
+	private static final String[][] CLIENTES = {
+			{"Ana Souza", "(11) 98888-7777"},
+			{"Mariana Lima", "+55 11 97777-1234"},
+			{"Bruno Anastácio", "011 3333-4444"},
+			{"Carla Dias", "0055 21 98888-1111"},
+			{"Diego Santana", "21988887777"},
+	};
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private PedidoRepository pedidoRepository;
+
+	private IndiceBuscaCliente indice;
+
+	@BeforeEach
+	void gravarClientes() {
+		for (String[] dados : CLIENTES) {
+			Cliente cliente = clienteRepository.save(new Cliente(null, dados[0], dados[1], "Rua A, 1", null));
+			Pedido pedido = new Pedido();
+			pedido.setCliente(cliente);
+			pedido.setDataEntrega(LocalDateTime.of(2026, 11, 20, 10, 0));
+			pedidoRepository.save(pedido);
+		}
+		pedidoRepository.flush();
+		indice = new IndiceBuscaCliente(clienteRepository);
+		indice.construir();
+	}
+
+	@Test
+	void telefoneCasaComOLikeNaFormaNormalizada() {
+		for (String termo : List.of("98888", "(11) 98888", "+55 11 98888-7777", "5511988887777",
+				"011 98888-7777", "3333-4444", "1111", "55", "0", "12")) {
+			assertEquals(porLike(null, termo), indice.buscar(null, termo, 100), termo);
+		}
+	}
+
+	@Test
+	void nomeCasaComOLike() {
+		for (String termo : List.of("ana", "ANA", "Souza", "lima", "an", "x")) {
+			assertEquals(porLike(termo, null), indice.buscar(termo, null, 100), termo);
+		}
+	}
+
+	@Test
+	void nomeETelefoneJuntos() {
+		assertEquals(porLike("souza", "98888"), indice.buscar("souza", "98888", 100));
+		assertEquals(List.of(clienteId("Ana Souza")), indice.buscar("souza", "98888", 100));
+	}
+
+	// Mesmos critérios que PedidoService usa quando o índice devolve null
+	private List<Long> porLike(String nome, String telefone) {
+		List<Specification<Pedido>> filtros = new ArrayList<>();
+		if (nome != null) filtros.add(PedidoSpecifications.clienteNomeContem(nome));
+		if (telefone != null) filtros.add(PedidoSpecifications.telefoneNormalizadoContem(Telefones.normalizar(telefone)));
+		return pedidoRepository.findAll(Specification.allOf(filtros)).stream()
+				.map(p -> p.getCliente().getId())
+				.distinct()
+				.sorted()
+				.toList();
+	}
+
+	private Long clienteId(String nome) {
+		return clienteRepository.findAll().stream()
+				.filter(c -> c.getNome().equals(nome))
+				.findFirst().orElseThrow().getId();
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.PedidoIndiceProjecao;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+import com.example.pedidos.Repositories.PedidoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceProdutosPedidoTest {
+
+	private static final LocalDateTime DIA = LocalDateTime.of(2026, 11, 20, 10, 0);
+
+	private final PedidoRepository repository = mock(PedidoRepository.class);
+
+	@Test
+	void indiceNaoProntoDevolveNull() {
+		IndiceProdutosPedido indice = new IndiceProdutosPedido(repository);
+
+		assertNull(indice.buscar(EnumSet.of(Produto.FILE), 1, null, null, 100));
+	}
+
+	@Test
+	void buscaExigeTodosOsProdutos() {
+		IndiceProdutosPedido indice = construido(
+				linha(1, DIA, Produto.FILE, 2),
+				linha(2, DIA, Produto.FILE, 1), linha(2, DIA, Produto.TEMPERO, 1),
+				linha(3, DIA, Produto.TEMPERO, 3),
+				linha(4, DIA, null, null));
+
+		assertEquals(List.of(1L, 2L), indice.buscar(EnumSet.of(Produto.FILE), 1, null, null, 100));
+		assertEquals(List.of(2L), indice.buscar(EnumSet.of(Produto.FILE, Produto.TEMPERO), 1, null, null, 100));
+		assertEquals(List.of(), indice.buscar(EnumSet.of(Produto.COMBO), 1, null, null, 100));
+	}
+
+	@Test
+	void quantidadeMinimaValeParaCadaProdutoESomaItensRepetidos() {
+		IndiceProdutosPedido indice = construido(
+				linha(1, DIA, Produto.FILE, 2), linha(1, DIA, Produto.TEMPERO, 1),
+				linha(2, DIA, Produto.FILE, 1), linha(2, DIA, Produto.FILE, 1), linha(2, DIA, Produto.TEMPERO, 2),
+				linha(3, DIA, Produto.FILE, 5), linha(3, DIA, Produto.TEMPERO, 5));
+
+		assertEquals(List.of(2L, 3L), indice.buscar(EnumSet.of(Produto.FILE, Produto.TEMPERO), 2, null, null, 100));
+		assertEquals(List.of(3L), indice.buscar(EnumSet.of(Produto.FILE), 3, null, null, 100));
+	}
+
+	@Test
+	void periodoIncluiLimitesEIgnoraPedidoSemData() {
+		IndiceProdutosPedido indice = construido(
+				linha(1, DIA.minusDays(1), Produto.FILE, 1),
+				linha(2, DIA, Produto.FILE, 1),
+				linha(3, DIA.plusDays(1), Produto.FILE, 1),
+				linha(4, null, Produto.FILE, 1));
+		EnumSet<Produto> file = EnumSet.of(Produto.FILE);
+
+		assertEquals(List.of(2L, 3L), indice.buscar(file, 1, DIA, DIA.plusDays(1), 100));
+		assertEquals(List.of(1L, 2L), indice.buscar(file, 1, null, DIA, 100));
+		assertEquals(List.of(3L), indice.buscar(file, 1, DIA.plusHours(1), null, 100));
+		assertEquals(List.of(1L, 2L, 3L, 4L), indice.buscar(file, 1, null, null, 100));
+	}
+
+	@Test
+	void maisResultadosQueOLimiteVoltamParaOBanco() {
+		IndiceProdutosPedido indice = construido(
+				linha(1, DIA, Produto.FILE, 1), linha(2, DIA, Produto.FILE, 1), linha(3, DIA, Produto.FILE, 1));
+
+		assertEquals(List.of(1L, 2L, 3L), indice.buscar(EnumSet.of(Produto.FILE), 1, null, null, 3));
+		assertNull(indice.buscar(EnumSet.of(Produto.FILE), 1, null, null, 2));
+	}
+
+	@Test
+	void compactacaoPreservaPedidosVivos() {
+		List<PedidoIndiceProjecao> linhas = new ArrayList<>();
+		for (long id = 1; id <= 3000; id++) linhas.add(linha(id, DIA, Produto.FILE, 1));
+		IndiceProdutosPedido indice = construido(linhas.toArray(PedidoIndiceProjecao[]::new));
+
+		// 2000 mortos contra 1000 vivos: passa do mínimo e dos vivos, compacta
+		for (long id = 1; id <= 2000; id++) indice.aoAlterarPedido(PedidoAlteradoEvent.excluido(id));
+		// Slots movidos continuam endereçáveis pelo id
+		indice.aoAlterarPedido(PedidoAlteradoEvent.gravado(pedido(2500, DIA, Produto.TEMPERO, 4)));
+		indice.aoAlterarPedido(PedidoAlteradoEvent.excluido(2999L));
+		indice.aoAlterarPedido(PedidoAlteradoEvent.gravado(pedido(3001, DIA, Produto.FILE, 1)));
+
+		List<Long> comFile = indice.buscar(EnumSet.of(Produto.FILE), 1, null, null, 10_000);
+		assertEquals(999, comFile.size());
+		assertEquals(2001L, comFile.get(0));
+		assertFalse(comFile.contains(2500L));
+		assertFalse(comFile.contains(2999L));
+		assertEquals(3001L, comFile.get(comFile.size() - 1));
+		assertEquals(List.of(2500L), indice.buscar(EnumSet.of(Produto.TEMPERO), 4, null, null, 10_000));
+	}
+
+	@Test
+	void alteracaoDuranteACargaEhRelidaAoFinal() throws Exception {
+		IndiceProdutosPedido indice = new IndiceProdutosPedido(repository);
+		// O pedido 2 é gravado depois que a consulta da carga já passou por ele
+		when(repository.listarParaIndice()).thenAnswer(invocacao -> {
+			Thread gravacao = new Thread(() ->
+					indice.aoAlterarPedido(PedidoAlteradoEvent.gravado(pedido(2, DIA, Produto.COMBO, 1))));
+			gravacao.start();
+			gravacao.join();
+			return List.of(linha(1, DIA, Produto.FILE, 1), linha(2, DIA, Produto.FILE, 1));
+		});
+		when(repository.listarParaIndice(anyCollection())).thenReturn(List.of(linha(2, DIA, Produto.COMBO, 1)));
+
+		indice.construir();
+
+		assertEquals(List.of(1L), indice.buscar(EnumSet.of(Produto.FILE), 1, null, null, 100));
+		assertEquals(List.of(2L), indice.buscar(EnumSet.of(Produto.COMBO), 1, null, null, 100));
+	}
+
+	private IndiceProdutosPedido construido(PedidoIndiceProjecao... linhas) {
+		when(repository.listarParaIndice()).thenReturn(List.of(linhas));
+		IndiceProdutosPedido indice = new IndiceProdutosPedido(repository);
+		indice.construir();
+		return indice;
+	}
+
+	private static PedidoIndiceProjecao linha(long pedidoId, LocalDateTime entrega, Produto produto, Integer quantidade) {
+		return new PedidoIndiceProjecao(pedidoId, entrega, produto, quantidade);
+	}
+
+	private static Pedido pedido(long id, LocalDateTime entrega, Produto produto, int quantidade) {
+		Pedido pedido = new Pedido();
+		pedido.setId(id);
+		pedido.setDataEntrega(entrega);
+		pedido.setItens(new ArrayList<>(List.of(new PedidoItem(produto, quantidade))));
+		return pedido;
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.Models.Centavos;
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.Produto;
+import com.example.pedidos.Repositories.ClienteRepository;
+import com.example.pedidos.Repositories.PedidoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Dois pedidos: um com dois itens e cliente com ';' no nome, outro sem itens
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:exportacao;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import(PedidoExportacaoService.class)
+class PedidoExportacaoServiceTest {
+
+	private static final LocalDateTime ENTREGA = LocalDateTime.of(2026, 11, 20, 10, 0);
+
+	@Autowired
+	private PedidoExportacaoService service;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private PedidoRepository pedidoRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Pedido comItens;
+	private Pedido semItens;
+
+	@BeforeEach
+	void gravarPedidos() {
+		Cliente ana = clienteRepository.save(new Cliente(null, "Souza; Ana", "11988887777", "Rua A, 1", null));
+		Cliente bia = clienteRepository.save(new Cliente(null, "Bia Lima", "11977776666", "Rua B, 2", null));
+
+		comItens = new Pedido();
+		comItens.setCliente(ana);
+		comItens.setDataEntrega(ENTREGA);
+		comItens.setTaxaEntregaCentavos(500);
+		for (PedidoItem item : List.of(new PedidoItem(Produto.FILE, 2), new PedidoItem(Produto.TIRAS, 1))) {
+			item.setPedido(comItens);
+			comItens.getItens().add(item);
+		}
+
+		semItens = new Pedido();
+		semItens.setCliente(bia);
+
+		pedidoRepository.saveAll(List.of(comItens, semItens));
+		pedidoRepository.flush();
+	}
+
+	@Test
+	void csvTemUmPedidoPorLinhaComOsItensJuntos() throws IOException {
+		List<String> linhas = exportar(FormatoArquivo.CSV).lines().toList();
+
+		long total = 500 + 2 * Produto.FILE.getPrecoCentavos() + Produto.TIRAS.getPrecoCentavos();
+		assertEquals(List.of(
+				"id;nome;telefone;endereco;dataEntrega;taxaEntrega;valorTotal;itens",
+				comItens.getId() + ";\"Souza; Ana\";11988887777;Rua A, 1;2026-11-20T10:00:00;"
+						+ Centavos.formatar(500, ',') + ";" + Centavos.formatar(total, ',') + ";FILE:2|TIRAS:1",
+				semItens.getId() + ";Bia Lima;11977776666;Rua B, 2;;"
+						+ Centavos.formatar(0, ',') + ";" + Centavos.formatar(0, ',') + ";"
+		), linhas);
+	}
+
+	@Test
+	void ndjsonTemUmObjetoPorLinha() throws IOException {
+		List<String> linhas = exportar(FormatoArquivo.NDJSON).lines().toList();
+		assertEquals(2, linhas.size());
+
+		JsonNode primeiro = objectMapper.readTree(linhas.get(0));
+		assertEquals(comItens.getId(), primeiro.get("id").asLong());
+		assertEquals("Souza; Ana", primeiro.get("nome").asText());
+		assertEquals("2026-11-20T10:00:00", primeiro.get("dataEntrega").asText());
+		assertEquals(2, primeiro.get("itens").size());
+		assertEquals("FILE", primeiro.get("itens").get(0).get("produto").asText());
+		assertEquals(0, Centavos.emReais(2 * Produto.FILE.getPrecoCentavos())
+				.compareTo(primeiro.get("itens").get(0).get("subtotal").decimalValue()));
+
+		JsonNode segundo = objectMapper.readTree(linhas.get(1));
+		assertEquals(semItens.getId(), segundo.get("id").asLong());
+		assertEquals(0, segundo.get("itens").size());
+		assertTrue(segundo.get("dataEntrega").isNull());
+	}
+
+	private String exportar(FormatoArquivo formato) throws IOException {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		service.exportar(formato, saida);
+		return saida.toString(StandardCharsets.UTF_8);
+	}
+}
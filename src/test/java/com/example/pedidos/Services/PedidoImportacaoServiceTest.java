@@ -0,0 +1,46 @@
+package com.example.pedidos.Services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PedidoImportacaoServiceTest {
+
+	@Test
+	void divideNoSeparadorSemAparar() {
+		assertEquals(List.of("1", "Ana", " R. A, 10 ", "FILE:2|TEMPERO:1"),
+				PedidoImportacaoService.dividirCsv("1;Ana; R. A, 10 ;FILE:2|TEMPERO:1", ';'));
+	}
+
+	@Test
+	void camposVaziosSaoMantidos() {
+		assertEquals(List.of("", "a", "", ""), PedidoImportacaoService.dividirCsv(";a;;", ';'));
+		assertEquals(List.of(""), PedidoImportacaoService.dividirCsv("", ';'));
+	}
+
+	@Test
+	void separadorEntreAspasFazParteDoCampo() {
+		assertEquals(List.of("Ana", "Rua A; casa 2", "53,90"),
+				PedidoImportacaoService.dividirCsv("Ana;\"Rua A; casa 2\";\"53,90\"", ';'));
+	}
+
+	@Test
+	void aspasDuplicadasViramUmaAspa() {
+		assertEquals(List.of("Bar \"do Zé\"", "x"),
+				PedidoImportacaoService.dividirCsv("\"Bar \"\"do Zé\"\"\";x", ';'));
+		assertEquals(List.of("\""), PedidoImportacaoService.dividirCsv("\"\"\"\"", ';'));
+	}
+
+	@Test
+	void virgulaComoSeparador() {
+		assertEquals(List.of("1", "Ana", "Rua A, 10", "5.00"),
+				PedidoImportacaoService.dividirCsv("1,Ana,\"Rua A, 10\",5.00", ','));
+	}
+
+	@Test
+	void aspasNaoFechadasVaoAteOFimDaLinha() {
+		assertEquals(List.of("Ana", "Rua A;10"), PedidoImportacaoService.dividirCsv("Ana;\"Rua A;10", ';'));
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Models.PedidoItem;
+import com.example.pedidos.Models.ProducaoDiaria;
+import com.example.pedidos.Models.Produto;
+import com.example.pedidos.Repositories.ClienteRepository;
+import com.example.pedidos.Repositories.PedidoRepository;
+import com.example.pedidos.Repositories.ProducaoDiariaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Os deltas da produção diária só são aplicados no commit: cada chamada ao serviço roda na própria
+// transação (sem a transação de teste do @DataJpaTest) e cada teste usa um dia de entrega seu
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:pedido_item;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({PedidoItemService.class, ProducaoService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PedidoItemServiceTest {
+
+	@Autowired
+	private PedidoItemService pedidoItemService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private PedidoRepository pedidoRepository;
+
+	@Autowired
+	private ProducaoDiariaRepository producaoDiariaRepository;
+
+	@Test
+	void cadastroEdicaoEExclusaoMantemProducaoETotal() {
+		LocalDate dia = LocalDate.of(2026, 11, 20);
+		Pedido pedido = novoPedido(dia);
+
+		PedidoItem item = new PedidoItem(Produto.FILE, 2);
+		item.setPedido(pedido);
+		Long itemId = pedidoItemService.cadastrarPedidoItem(item).getId();
+		assertProducao(dia, Produto.FILE, 2);
+		assertTotal(pedido, 2 * Produto.FILE.getPrecoCentavos());
+
+		// Como no PUT /api/itens/{id}: o pedido (@JsonBackReference) não vem no corpo
+		pedidoItemService.atualizarpedidoItem(itemId, new PedidoItem(Produto.FILE, 5));
+		assertProducao(dia, Produto.FILE, 5);
+		assertTotal(pedido, 5 * Produto.FILE.getPrecoCentavos());
+
+		pedidoItemService.atualizarpedidoItem(itemId, new PedidoItem(Produto.TIRAS, 3));
+		assertProducao(dia, Produto.FILE, 0);
+		assertProducao(dia, Produto.TIRAS, 3);
+		assertTotal(pedido, 3 * Produto.TIRAS.getPrecoCentavos());
+
+		pedidoItemService.excluirPedidoItem(itemId);
+		assertProducao(dia, Produto.TIRAS, 0);
+		assertTotal(pedido, 0);
+	}
+
+	@Test
+	void itemTrocadoDePedidoMudaDeDiaEDeTotal() {
+		LocalDate dia = LocalDate.of(2026, 11, 21);
+		LocalDate outroDia = LocalDate.of(2026, 11, 22);
+		Pedido origem = novoPedido(dia);
+		Pedido destino = novoPedido(outroDia);
+
+		PedidoItem item = new PedidoItem(Produto.MEIOFILE, 4);
+		item.setPedido(origem);
+		Long itemId = pedidoItemService.cadastrarPedidoItem(item).getId();
+
+		PedidoItem atualizado = new PedidoItem(Produto.MEIOFILE, 1);
+		Pedido referencia = new Pedido();
+		referencia.setId(destino.getId());
+		atualizado.setPedido(referencia);
+		pedidoItemService.atualizarpedidoItem(itemId, atualizado);
+
+		assertProducao(dia, Produto.MEIOFILE, 0);
+		assertProducao(outroDia, Produto.MEIOFILE, 1);
+		assertTotal(origem, 0);
+		assertTotal(destino, Produto.MEIOFILE.getPrecoCentavos());
+	}
+
+	private Pedido novoPedido(LocalDate dia) {
+		Cliente cliente = clienteRepository.save(new Cliente(null, "Ana Souza", "119888877" + dia.getDayOfMonth(), "Rua A, 1", null));
+		Pedido pedido = new Pedido();
+		pedido.setCliente(cliente);
+		pedido.setDataEntrega(dia.atTime(10, 0));
+		pedido.setAtualizadoEm(LocalDateTime.now());
+		return pedidoRepository.save(pedido);
+	}
+
+	private void assertProducao(LocalDate dia, Produto produto, long quantidade) {
+		long gravada = producaoDiariaRepository.findById(new ProducaoDiaria.Chave(dia, produto))
+				.map(ProducaoDiaria::getQuantidade)
+				.orElse(0L);
+		assertEquals(quantidade, gravada, dia + " " + produto);
+	}
+
+	private void assertTotal(Pedido pedido, long centavos) {
+		assertEquals(centavos, pedidoRepository.findById(pedido.getId()).orElseThrow().getValorTotalCentavos());
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.PedidoDTO;
+import com.example.pedidos.DTO.ResultadoLoteDTO;
+import com.example.pedidos.Models.Pedido;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Pedido inválido no lote vira erro na sua posição (não temporário) e não entra no bloco gravado
+class PedidoLoteServiceTest {
+
+	private final ValidatorFactory validacao = Validation.buildDefaultValidatorFactory();
+	private final PedidoService pedidoService = mock(PedidoService.class);
+	private final List<Pedido> gravados = new ArrayList<>();
+
+	private PedidoLoteService service;
+
+	@BeforeEach
+	void montar() {
+		AtomicLong ids = new AtomicLong();
+		when(pedidoService.montarPedido(any())).thenCallRealMethod();
+		when(pedidoService.cadastrarPedido(any())).thenAnswer(chamada -> {
+			Pedido pedido = chamada.getArgument(0);
+			pedido.setId(ids.incrementAndGet());
+			gravados.add(pedido);
+			return pedido;
+		});
+		service = new PedidoLoteService(pedidoService, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+				mock(EntityManager.class), validacao.getValidator(), Duration.ofMinutes(1));
+	}
+
+	@AfterEach
+	void fechar() {
+		validacao.close();
+	}
+
+	@Test
+	void invalidosViramErroNaPosicaoEOsOutrosSaoGravados() {
+		PedidoDTO semNome = pedido("Ana Souza", "11988887777", 2);
+		semNome.nome = " ";
+		PedidoDTO telefoneSemDigitos = pedido("Bia Lima", "abc", 1);
+		PedidoDTO quantidadeNegativa = pedido("Caio Reis", "11966665555", -1);
+
+		ResultadoLoteDTO resultado = service.cadastrarLote(Arrays.asList(
+				pedido("Ana Souza", "11988887777", 2), semNome, telefoneSemDigitos, null, quantidadeNegativa));
+
+		assertEquals(5, resultado.recebidos);
+		assertEquals(1, resultado.gravados);
+		assertEquals(1L, resultado.resultados.get(0).id());
+		assertEquals("O nome não pode estar em branco", resultado.resultados.get(1).erro());
+		assertEquals("Telefone do cliente é obrigatório.", resultado.resultados.get(2).erro());
+		assertEquals("Pedido vazio.", resultado.resultados.get(3).erro());
+		assertEquals("Quantidade deve ser >= 0", resultado.resultados.get(4).erro());
+		for (int i = 1; i < 5; i++) {
+			assertNull(resultado.resultados.get(i).id());
+			assertNull(resultado.resultados.get(i).temporario());
+		}
+		assertEquals(List.of(1, 2, 3, 4), resultado.erros.stream().map(erro -> erro.posicao).sorted().toList());
+
+		verify(pedidoService, times(1)).cadastrarPedido(any());
+		assertEquals("Ana Souza", gravados.get(0).getCliente().getNome());
+	}
+
+	@Test
+	void variasViolacoesDoMesmoPedidoVemJuntas() {
+		PedidoDTO dto = pedido(" ", "11988887777", -1);
+		dto.endereco = null;
+
+		ResultadoLoteDTO resultado = service.cadastrarLote(List.of(dto));
+
+		String erro = resultado.resultados.get(0).erro();
+		assertEquals("O endereço não pode estar em branco; O nome não pode estar em branco; Quantidade deve ser >= 0", erro);
+		assertTrue(gravados.isEmpty());
+	}
+
+	private static PedidoDTO pedido(String nome, String telefone, int quantidade) {
+		PedidoDTO.ItemDTO item = new PedidoDTO.ItemDTO();
+		item.produto = "FILE";
+		item.quantidade = quantidade;
+
+		PedidoDTO dto = new PedidoDTO();
+		dto.nome = nome;
+		dto.telefone = telefone;
+		dto.endereco = "Rua A, 1";
+		dto.dataEntrega = LocalDateTime.of(2026, 11, 20, 10, 0);
+		dto.itens = List.of(item);
+		return dto;
+	}
+}
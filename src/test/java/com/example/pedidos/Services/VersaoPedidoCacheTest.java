@@ -0,0 +1,95 @@
+package com.example.pedidos.Services;
+
+import com.example.pedidos.DTO.VersaoPedidoProjecao;
+import com.example.pedidos.Models.Cliente;
+import com.example.pedidos.Models.Pedido;
+import com.example.pedidos.Repositories.ClienteRepository;
+import com.example.pedidos.Repositories.PedidoExcluidoRepository;
+import com.example.pedidos.Repositories.PedidoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VersaoPedidoCacheTest {
+
+	private static final LocalDateTime ALTERADO = LocalDateTime.of(2026, 11, 20, 10, 0, 0, 123_456_000);
+
+	private final VersaoPedidoCache cache = new VersaoPedidoCache(1000, Duration.ofMinutes(1));
+
+	@Test
+	void lidoDoBancoViraOMesmoEtag() {
+		VersaoPedidoProjecao lida = new VersaoPedidoProjecao(1L, 3L, 10L, ALTERADO);
+		assertNull(cache.etagConhecido(1L));
+
+		cache.registrar(lida);
+
+		assertEquals(lida.etag(), cache.etagConhecido(1L));
+	}
+
+	@Test
+	void pedidoGravadoAvancaALeituraAtrasadaNao() {
+		cache.registrar(new VersaoPedidoProjecao(1L, 3L, 10L, ALTERADO));
+
+		cache.aoAlterarPedido(PedidoAlteradoEvent.gravado(pedido(1L, 4L, 10L)));
+		String depois = new VersaoPedidoProjecao(1L, 4L, 10L, ALTERADO).etag();
+		assertEquals(depois, cache.etagConhecido(1L));
+
+		cache.registrar(new VersaoPedidoProjecao(1L, 3L, 10L, ALTERADO));
+		assertEquals(depois, cache.etagConhecido(1L));
+	}
+
+	@Test
+	void clienteAlteradoDescartaOsPedidosDele() {
+		cache.registrar(new VersaoPedidoProjecao(1L, 3L, 10L, ALTERADO));
+		cache.registrar(new VersaoPedidoProjecao(2L, 1L, 20L, ALTERADO));
+
+		cache.aoAlterarCliente(ClienteAlteradoEvent.gravado(new Cliente(10L, "Ana", "11988887777", "Rua A", null), null));
+
+		assertNull(cache.etagConhecido(1L));
+		assertEquals(new VersaoPedidoProjecao(2L, 1L, 20L, ALTERADO).etag(), cache.etagConhecido(2L));
+	}
+
+	@Test
+	void pedidoExcluidoNaoVoltaPorLeituraAtrasada() {
+		cache.registrar(new VersaoPedidoProjecao(1L, 3L, 10L, ALTERADO));
+
+		cache.aoAlterarPedido(PedidoAlteradoEvent.excluido(1L));
+		cache.registrar(new VersaoPedidoProjecao(1L, 3L, 10L, ALTERADO));
+
+		assertNull(cache.etagConhecido(1L));
+	}
+
+	@Test
+	void etagPedidoSoConsultaOBancoNaFalta() {
+		PedidoRepository repository = mock(PedidoRepository.class);
+		VersaoPedidoProjecao lida = new VersaoPedidoProjecao(1L, 3L, 10L, ALTERADO);
+		when(repository.versao(1L)).thenReturn(lida);
+		PedidoService service = new PedidoService(repository, mock(ClienteRepository.class), mock(ClienteService.class),
+				mock(IndiceBuscaCliente.class), mock(IndiceProdutosPedido.class), mock(ProducaoService.class),
+				mock(PedidoExcluidoRepository.class), cache, mock(ApplicationEventPublisher.class),
+				Duration.ofDays(30), Duration.ofMinutes(1));
+
+		assertEquals(lida.etag(), service.etagPedido(1L));
+		assertEquals(lida.etag(), service.etagPedido(1L));
+		verify(repository, times(1)).versao(1L);
+
+		assertNull(service.etagPedido(2L));
+	}
+
+	private static Pedido pedido(Long id, Long versao, Long clienteId) {
+		Pedido pedido = mock(Pedido.class);
+		when(pedido.getId()).thenReturn(id);
+		when(pedido.getVersao()).thenReturn(versao);
+		when(pedido.getCliente()).thenReturn(new Cliente(clienteId, "Ana", "11988887777", "Rua A", null));
+		return pedido;
+	}
+}